@@ -0,0 +1,40 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.IntArgKey;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.exception.ArgsException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading an already parsed value through {@code getInt(char)} against a typed {@link IntArgKey}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgKeyBenchmark {
+    private ParsedArgs parsed;
+    private IntArgKey port;
+
+    @Setup
+    public void parse() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l,p#,d*,r##");
+        parsed = schema.parse(new String[]{"-l", "-p", "8080", "-d", "/var/log", "-r", "0.5"});
+        port = schema.intKey('p');
+    }
+
+    @Benchmark
+    public int charGetter() {
+        return parsed.getInt('p');
+    }
+
+    @Benchmark
+    public int keyGetter() {
+        return parsed.getInt(port);
+    }
+}
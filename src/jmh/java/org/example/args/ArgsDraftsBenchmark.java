@@ -0,0 +1,92 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.exception.ArgsException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the three parser generations on the schema shapes they all support.
+ * Reports throughput and sampled latency percentiles; run with {@code -prof gc}
+ * (the default {@code jmh.args}) for bytes allocated per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgsDraftsBenchmark {
+
+    @Param({"small", "wide"})
+    public String shape;
+
+    @Param({"valid", "invalid"})
+    public String input;
+
+    private String schema;
+    private String[] args;
+    private ArgsSchema compiled;
+
+    @Setup
+    public void setUp() throws ArgsException {
+        boolean valid = input.equals("valid");
+        if (shape.equals("small")) {
+            schema = "l,p#,d*";
+            args = valid
+                    ? new String[]{"-l", "-p", "8080", "-d", "/var/log"}
+                    : new String[]{"-l", "-p", "eighty", "-d", "/var/log"};
+        } else {
+            schema = "a,b,c,e,f,g,h#,i#,j#,k#,m*,n*,o*,q*,s*,t#,u#,w*,x,y";
+            args = valid
+                    ? new String[]{"-abc", "-h", "1", "-i", "2", "-j", "3", "-k", "4", "-m", "em", "-n", "en",
+                    "-o", "oh", "-q", "queue", "-s", "ess", "-t", "5", "-u", "6", "-w", "w", "-xy"}
+                    : new String[]{"-abc", "-h", "1", "-i", "2", "-j", "3", "-k", "4", "-m", "em", "-n", "en",
+                    "-o", "oh", "-q", "queue", "-s", "ess", "-t", "5", "-u", "6", "-w", "w", "-xyz"};
+        }
+        compiled = ArgsSchema.compile(schema);
+    }
+
+    @Benchmark
+    public void firstDraft(Blackhole blackhole) {
+        try {
+            blackhole.consume(new args.firstDraft.Args(schema, args));
+        } catch (Exception e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void secondDraft(Blackhole blackhole) {
+        try {
+            blackhole.consume(new args.secondDraft.Args(schema, args));
+        } catch (Exception e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void finalVersion(Blackhole blackhole) {
+        try {
+            blackhole.consume(new args.finalVersion.Args(schema, args));
+        } catch (ArgsException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void finalVersionCompiledSchema(Blackhole blackhole) {
+        try {
+            blackhole.consume(compiled.parse(args));
+        } catch (ArgsException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void finalVersionValidate(Blackhole blackhole) {
+        blackhole.consume(compiled.validate(args));
+    }
+}
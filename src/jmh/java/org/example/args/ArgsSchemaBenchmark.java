@@ -0,0 +1,40 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.exception.ArgsException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-parse cost of compiling the schema on every call (the old
+ * {@code new Args(schema, args)} behaviour) against reusing a compiled schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgsSchemaBenchmark {
+    private static final String SCHEMA = "l,p#,d*,r##,v,x,y#,z*";
+    private static final String[] ARGS = {"-l", "-p", "8080", "-d", "/var/log", "-r", "0.5", "-vx"};
+
+    private ArgsSchema compiled;
+
+    @Setup
+    public void compile() throws ArgsException {
+        compiled = ArgsSchema.compile(SCHEMA);
+    }
+
+    @Benchmark
+    public ParsedArgs compilePerParse() throws ArgsException {
+        return new ArgsSchema(SCHEMA).parse(ARGS);
+    }
+
+    @Benchmark
+    public ParsedArgs compiledSchema() throws ArgsException {
+        return compiled.parse(ARGS);
+    }
+}
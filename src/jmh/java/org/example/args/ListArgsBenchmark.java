@@ -0,0 +1,63 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.exception.ArgsException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List-heavy schemas, which only the final version supports: a long {@code [*]} tail
+ * and comma-separated numeric lists, with valid and invalid input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListArgsBenchmark {
+    private static final int LIST_SIZE = 1000;
+
+    @Param({"valid", "invalid"})
+    public String input;
+
+    private ArgsSchema schema;
+    private String[] args;
+
+    @Setup
+    public void setUp() throws ArgsException {
+        schema = ArgsSchema.compile("v,s[#],w[##],f[*]");
+        String[] files = new String[LIST_SIZE];
+        Arrays.setAll(files, i -> "/data/part-" + i);
+        String shards = numbers(LIST_SIZE, "") + (input.equals("valid") ? "" : ",x");
+        String weights = numbers(LIST_SIZE, ".5");
+        String[] flags = {"-v", "-s", shards, "-w", weights, "-f"};
+        args = Arrays.copyOf(flags, flags.length + files.length);
+        System.arraycopy(files, 0, args, flags.length, files.length);
+    }
+
+    private static String numbers(int count, String suffix) {
+        StringBuilder numbers = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            numbers.append(i == 0 ? "" : ",").append(i).append(suffix);
+        }
+        return numbers.toString();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        try {
+            blackhole.consume(schema.parse(args));
+        } catch (ArgsException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        blackhole.consume(schema.validate(args));
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.ReusableArgs;
+import args.finalVersion.exception.ArgsException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per parse of a fresh {@link ParsedArgs} against a reused {@link ReusableArgs},
+ * from a {@code String[]} and from a raw command line; run with {@code -prof gc} and
+ * compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReusableArgsBenchmark {
+    private static final String SCHEMA = "l,p#,d*,r##,v,x,y#,z*";
+    private static final String[] ARGS = {"-l", "-p", "8080", "-d", "/var/log", "-r", "0.5", "-vx"};
+    private static final String LINE = "-l -p 8080 -d '/var/log' -r 0.5 -vx";
+
+    private ArgsSchema schema;
+    private ReusableArgs reusable;
+
+    @Setup
+    public void compile() throws ArgsException {
+        schema = ArgsSchema.compile(SCHEMA);
+        reusable = new ReusableArgs(schema);
+    }
+
+    @Benchmark
+    public int freshParse() throws ArgsException {
+        return schema.parse(ARGS).getInt('p');
+    }
+
+    @Benchmark
+    public int reusableParse() throws ArgsException {
+        return reusable.parse(ARGS).getInt('p');
+    }
+
+    @Benchmark
+    public int threadLocalParse() throws ArgsException {
+        return schema.reusableArgs().parse(ARGS).getInt('p');
+    }
+
+    @Benchmark
+    public int splitLineThenParse() throws ArgsException {
+        return reusable.parse(LINE.replace("'", "").split(" ")).getInt('p');
+    }
+
+    @Benchmark
+    public int commandLineParse() throws ArgsException {
+        return reusable.parse(LINE).getInt('p');
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.comparisonCompactor;
+
+import comparisonCompactor_TDD.FinalComparisonCompactor;
+import comparisonCompactor_TDD.OriginalComparisonCompactor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compacting two strings of {@code length} chars that differ in one char in the
+ * middle, so both the prefix and the suffix scan cover half the input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ComparisonCompactorBenchmark {
+    @Param({"100", "10000", "1000000", "50000000"})
+    private int length;
+
+    private String expected;
+    private String actual;
+    private final StringBuilder out = new StringBuilder();
+
+    @Setup
+    public void createPayloads() {
+        StringBuilder payload = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            payload.append((char) ('a' + i % 26));
+        }
+        expected = payload.toString();
+        payload.setCharAt(length / 2, '#');
+        actual = payload.toString();
+    }
+
+    @Benchmark
+    public String original() {
+        return new OriginalComparisonCompactor(20, expected, actual).compact(null);
+    }
+
+    @Benchmark
+    public String wordAtATime() {
+        return new FinalComparisonCompactor(20, expected, actual).formatCompactedComparison(null);
+    }
+
+    @Benchmark
+    public StringBuilder appendingIntoBuilder() {
+        out.setLength(0);
+        return new FinalComparisonCompactor(20, expected, actual).appendCompactedComparison(null, out);
+    }
+}
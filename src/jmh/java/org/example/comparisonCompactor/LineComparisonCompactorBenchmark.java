@@ -0,0 +1,46 @@
+package org.example.comparisonCompactor;
+
+import comparisonCompactor_TDD.FinalComparisonCompactor;
+import comparisonCompactor_TDD.LineComparisonCompactor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-line values of {@code lines} lines with one line changed and one inserted,
+ * at a quarter and three quarters of the way through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LineComparisonCompactorBenchmark {
+    @Param({"1000", "1000000"})
+    private int lines;
+
+    private String expected;
+    private String actual;
+
+    @Setup
+    public void createPayloads() {
+        StringBuilder payload = new StringBuilder();
+        for (int line = 0; line < lines; line++) {
+            payload.append("{\"id\": ").append(line).append(", \"name\": \"row ").append(line).append("\"}\n");
+        }
+        expected = payload.toString();
+        actual = expected.replace("\"row " + lines / 4 + "\"", "\"changed\"")
+                .replace("\"row " + lines * 3 / 4 + "\"}\n", "\"row " + lines * 3 / 4 + "\"}\ninserted\n");
+    }
+
+    @Benchmark
+    public String characters() {
+        return new FinalComparisonCompactor(20, expected, actual).formatCompactedComparison(null);
+    }
+
+    @Benchmark
+    public String lines() {
+        return new LineComparisonCompactor(2, 20, expected, actual).formatCompactedComparison(null);
+    }
+}
@@ -0,0 +1,47 @@
+package args.finalVersion;
+
+import args.finalVersion.marshaler.ArgumentValues;
+
+/**
+ * A typed handle on one argument of a compiled {@link ArgsSchema}. The argument's type is
+ * checked once, when the key is made, and the key holds its slot, so reading a value
+ * through it skips the marshaler lookup and type check of the {@code char} getters.
+ * <p>
+ * A key works with values parsed by any schema compiled from the same definition string,
+ * so keys stay valid when {@link ArgsSchema#compile} recompiles an evicted schema.
+ */
+public class ArgKey<T> {
+    final ArgsSchema schema;
+    final char id;
+    final int slot;
+    private final ValueReader<T> reader;
+
+    ArgKey(ArgsSchema schema, char id, int slot, ValueReader<T> reader) {
+        this.schema = schema;
+        this.id = id;
+        this.slot = slot;
+        this.reader = reader;
+    }
+
+    public char id() {
+        return id;
+    }
+
+    /**
+     * The key's slot in values parsed by {@code parser}, which must share the key's definition.
+     */
+    int slotIn(ArgsSchema parser) {
+        if (parser != schema && !parser.definition().equals(schema.definition())) {
+            throw new IllegalArgumentException("Key -" + id + " belongs to another schema");
+        }
+        return slot;
+    }
+
+    T read(ArgumentValues values) {
+        return reader.read(values, slot);
+    }
+
+    interface ValueReader<T> {
+        T read(ArgumentValues values, int slot);
+    }
+}
@@ -2,116 +2,90 @@ package args.finalVersion;
 
 import args.finalVersion.exception.ArgsException;
 
-import static args.finalVersion.exception.ArgsException.ErrorCode.*;
-
-import args.finalVersion.marshaler.*;
-
-import java.util.*;
+import java.util.List;
+import java.util.stream.Stream;
 
 
 public class Args {
-    private final Map<Character, ArgumentMarshaler> marshalers;
-    private final Set<Character> argsFound;
-    private ListIterator<String> argumentIterator;
+    private final ParsedArgs parsedArgs;
 
     public Args(String schema, String[] args) throws ArgsException {
-        marshalers = new HashMap<>();
-        argsFound = new HashSet<>();
-        parseSchema(schema);
-        parseArgumentStrings(Arrays.asList(args));
-    }
-
-    private void parseSchema(String schema) throws ArgsException {
-        for (String element : schema.split(",")) {
-            if (!element.isEmpty()) {
-                parseSchemaElement(element.trim());
-            }
-        }
-    }
-
-    private void parseSchemaElement(String element) throws ArgsException {
-        char elementId = element.charAt(0);
-        String elementTail = element.substring(1);
-        validateSchemaElementId(elementId);
-        if (elementTail.isEmpty()) {
-            marshalers.put(elementId, new BooleanArgumentMarshaler());
-        } else if (elementTail.equals("*")) {
-            marshalers.put(elementId, new StringArgumentMarshaler());
-        } else if (elementTail.equals("#")) {
-            marshalers.put(elementId, new IntegerArgumentMarshaler());
-        } else if (elementTail.equals("##")) {
-            marshalers.put(elementId, new DoubleArgumentMarshaler());
-        } else if (elementTail.equals("[*]")) {
-            marshalers.put(elementId, new StringArrayArgumentMarshaler());
-        } else {
-            throw new ArgsException(INVALID_ARGUMENT_FORMAT, elementId, elementTail);
-        }
-    }
-
-    private void validateSchemaElementId(char elementId) throws ArgsException {
-        if (!Character.isLetter(elementId)) {
-            throw new ArgsException(INVALID_ARGUMENT_NAME, elementId, null);
-        }
-    }
-
-    private void parseArgumentStrings(List<String> argsList) throws ArgsException {
-        for (argumentIterator = argsList.listIterator(); argumentIterator.hasNext(); ) {
-            String argString = argumentIterator.next();
-            if (argString.startsWith("-")) {
-                parseArgumentCharacters(argString.substring(1));
-            } else {
-                argumentIterator.previous();
-                break;
-            }
-        }
-    }
-
-    private void parseArgumentCharacters(String argChars) throws ArgsException {
-        for (int i = 0; i < argChars.length(); i++) {
-            parseArgumentCharacter(argChars.charAt(i));
-        }
-    }
-
-    private void parseArgumentCharacter(char argChar) throws ArgsException {
-        ArgumentMarshaler m = marshalers.get(argChar);
-        if (m == null) {
-            throw new ArgsException(UNEXPECTED_ARGUMENT, argChar, null);
-        } else {
-            argsFound.add(argChar);
-            try {
-                m.set(argumentIterator);
-            } catch (ArgsException e) {
-                e.setErrorArgumentId(argChar);
-                throw e;
-            }
-        }
+        this(ArgsSchema.compile(schema), args);
+    }
+
+    public Args(ArgsSchema schema, String[] args) throws ArgsException {
+        parsedArgs = schema.parse(args);
+    }
+
+    public Args(ArgsSchema schema, ArgsDefaults defaults, String[] args) throws ArgsException {
+        parsedArgs = schema.parse(args, defaults);
     }
 
     public boolean has(char arg) {
-        return argsFound.contains(arg);
+        return parsedArgs.has(arg);
     }
 
     public int nextArgument() {
-        return argumentIterator.nextIndex();
+        return parsedArgs.nextArgument();
     }
 
     public boolean getBoolean(char arg) {
-        return BooleanArgumentMarshaler.getValue(marshalers.get(arg));
+        return parsedArgs.getBoolean(arg);
     }
 
     public String getString(char arg) {
-        return StringArgumentMarshaler.getValue(marshalers.get(arg));
+        return parsedArgs.getString(arg);
     }
 
     public int getInt(char arg) {
-        return IntegerArgumentMarshaler.getValue(marshalers.get(arg));
+        return parsedArgs.getInt(arg);
     }
 
     public double getDouble(char arg) {
-        return DoubleArgumentMarshaler.getValue(marshalers.get(arg));
+        return parsedArgs.getDouble(arg);
     }
 
     public String[] getStringArray(char arg) {
-        return StringArrayArgumentMarshaler.getValue(marshalers.get(arg));
+        return parsedArgs.getStringArray(arg);
+    }
+
+    public int[] getIntArray(char arg) {
+        return parsedArgs.getIntArray(arg);
+    }
+
+    public long[] getLongArray(char arg) {
+        return parsedArgs.getLongArray(arg);
+    }
+
+    public double[] getDoubleArray(char arg) {
+        return parsedArgs.getDoubleArray(arg);
+    }
+
+    public boolean has(ArgKey<?> key) {
+        return parsedArgs.has(key);
+    }
+
+    public boolean getBoolean(BooleanArgKey key) {
+        return parsedArgs.getBoolean(key);
+    }
+
+    public int getInt(IntArgKey key) {
+        return parsedArgs.getInt(key);
+    }
+
+    public double getDouble(DoubleArgKey key) {
+        return parsedArgs.getDouble(key);
+    }
+
+    public <T> T get(ArgKey<T> key) {
+        return parsedArgs.get(key);
+    }
+
+    public List<String> getStringList(char arg) {
+        return parsedArgs.getStringList(arg);
+    }
+
+    public Stream<String> getStringStream(char arg) {
+        return parsedArgs.getStringStream(arg);
     }
 }
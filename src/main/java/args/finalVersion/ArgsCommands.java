@@ -0,0 +1,39 @@
+package args.finalVersion;
+
+import args.finalVersion.exception.ArgsException;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.*;
+
+/**
+ * Git-style subcommands: the first argument names a command, or a unique prefix of
+ * one, and the rest is parsed with that command's schema. Command names are resolved
+ * through a trie compiled once with the commands.
+ */
+public final class ArgsCommands {
+    private final String[] names;
+    private final ArgsSchema[] schemas;
+    private final NameTrie commands;
+
+    public ArgsCommands(Map<String, String> schemasByCommand) throws ArgsException {
+        names = schemasByCommand.keySet().toArray(new String[0]);
+        schemas = new ArgsSchema[names.length];
+        for (int i = 0; i < names.length; i++) {
+            schemas[i] = ArgsSchema.compile(schemasByCommand.get(names[i]));
+        }
+        commands = new NameTrie(new ArrayList<>(schemasByCommand.keySet()));
+    }
+
+    public ParsedCommand parse(String[] args) throws ArgsException {
+        if (args.length == 0) {
+            throw new ArgsException(MISSING_COMMAND);
+        }
+        int command = commands.find(args[0], 0, args[0].length());
+        if (command < 0) {
+            throw new ArgsException(command == NameTrie.AMBIGUOUS ? AMBIGUOUS_COMMAND : UNEXPECTED_COMMAND, args[0]);
+        }
+        return new ParsedCommand(names[command], schemas[command].parse(args, 1));
+    }
+}
@@ -0,0 +1,31 @@
+package args.finalVersion;
+
+import args.finalVersion.marshaler.ArgumentValues;
+
+/**
+ * Fallback values for a schema, converted once by {@link ArgsSchema#defaults}. A parse
+ * copies them into the slots its arguments left unset, so reading a defaulted value
+ * costs the same array read as reading a parsed one.
+ * <p>
+ * A defaulted argument counts as present: {@link ParsedArgs#has} is {@code true} for it,
+ * just as if it had been given on the command line.
+ */
+public final class ArgsDefaults {
+    static final ArgsDefaults NONE = new ArgsDefaults(new ArgumentValues(0), 0);
+
+    private final ArgumentValues values;
+    private final long found;
+
+    ArgsDefaults(ArgumentValues values, long found) {
+        this.values = values;
+        this.found = found;
+    }
+
+    long applyTo(ArgumentValues target, long argsFound) {
+        long unset = found & ~argsFound;
+        if (unset != 0) {
+            target.copyFrom(values, unset);
+        }
+        return argsFound | found;
+    }
+}
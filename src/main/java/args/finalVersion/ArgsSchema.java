@@ -0,0 +1,464 @@
+package args.finalVersion;
+
+import args.finalVersion.exception.ArgsErrors;
+import args.finalVersion.exception.ArgsException;
+import args.finalVersion.exception.ArgsException.ErrorCode;
+import args.finalVersion.marshaler.*;
+import args.finalVersion.monitoring.ArgsMetrics;
+import args.finalVersion.monitoring.ArgsParseEvent;
+import args.finalVersion.monitoring.ArgsSchemaCompileEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.*;
+
+/**
+ * A compiled argument schema such as {@code "l,p#,d*"}. An element may give its
+ * argument a long name, {@code "p|port#"}, which is then accepted as {@code --port 80},
+ * {@code --port=80} or any unique prefix such as {@code --po=80}.
+ * <p>
+ * A {@code [*]} argument takes its tokens literally. Only a {@code [@*]} argument expands
+ * {@code @path} tokens into the lines of the named file; schemas with such arguments
+ * cannot be served to untrusted input such as an {@link args.finalVersion.daemon.ArgsDaemon}.
+ */
+public final class ArgsSchema {
+    private static final int CACHE_CAPACITY = 64;
+    private static final int ARGUMENT_ID_LIMIT = 128;
+    private static final int REUSABLE_ARGS_PER_THREAD = 16;
+    private static final ConcurrentMap<String, CachedSchema> cache = new ConcurrentHashMap<>();
+    // advances on every cache miss; an entry stamped with an older tick has not been used since
+    private static final AtomicLong cacheTick = new AtomicLong();
+    // static and bounded, so a long-lived thread keeps at most a few schemas reachable
+    private static final ThreadLocal<Map<ArgsSchema, ReusableArgs>> reusableArgs =
+            ThreadLocal.withInitial(ReusableArgsCache::new);
+
+    private final String definition;
+    private final ArgumentMarshaler[] marshalers = new ArgumentMarshaler[ARGUMENT_ID_LIMIT];
+    private final byte[] slots = new byte[ARGUMENT_ID_LIMIT];
+    private final String[] types = new String[ARGUMENT_ID_LIMIT];
+    private final String[] longNamesById = new String[ARGUMENT_ID_LIMIT];
+    private final NameTrie longNames;
+    private final char[] longIds;
+    private int slotCount;
+    private boolean expandsArgumentFiles;
+
+    public ArgsSchema(String schema) throws ArgsException {
+        ArgsSchemaCompileEvent event = new ArgsSchemaCompileEvent();
+        event.begin();
+        definition = schema;
+        Arrays.fill(slots, (byte) -1);
+        Map<String, Character> longNameIds = new LinkedHashMap<>();
+        parseSchema(schema, longNameIds);
+        longNames = new NameTrie(new ArrayList<>(longNameIds.keySet()));
+        longIds = new char[longNameIds.size()];
+        int name = 0;
+        for (char id : longNameIds.values()) {
+            longIds[name++] = id;
+        }
+        ArgsMetrics.recordCompile();
+        if (event.shouldCommit()) {
+            event.schema = schema;
+            event.elementCount = slotCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * The cached schema for {@code schema}, compiled on first use; every thread gets the same instance.
+     * A hit takes no lock. A miss compiles outside any lock, and when threads race to compile
+     * the same schema the first one cached wins. Beyond {@code CACHE_CAPACITY} schemas the
+     * least recently used one is dropped, approximately: use is tracked per miss, not per hit.
+     */
+    public static ArgsSchema compile(String schema) throws ArgsException {
+        CachedSchema cached = cache.get(schema);
+        if (cached == null) {
+            CachedSchema compiled = new CachedSchema(new ArgsSchema(schema), cacheTick.incrementAndGet());
+            cached = cache.putIfAbsent(schema, compiled);
+            if (cached == null) {
+                cached = compiled;
+                evictLeastRecentlyUsed();
+            }
+        }
+        cached.use(cacheTick.get());
+        return cached.schema;
+    }
+
+    private static void evictLeastRecentlyUsed() {
+        while (cache.size() > CACHE_CAPACITY) {
+            Map.Entry<String, CachedSchema> eldest = null;
+            for (Map.Entry<String, CachedSchema> entry : cache.entrySet()) {
+                if (eldest == null || entry.getValue().lastUse < eldest.getValue().lastUse) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            cache.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    public ParsedArgs parse(String[] args) throws ArgsException {
+        return parse(args, 0);
+    }
+
+    /**
+     * Parses {@code args}, taking every argument they leave unset from {@code defaults};
+     * {@link ParsedArgs#has} is {@code true} for the arguments taken from {@code defaults}.
+     */
+    public ParsedArgs parse(String[] args, ArgsDefaults defaults) throws ArgsException {
+        return new Parser(args, 0, null, false, defaults).parse();
+    }
+
+    /**
+     * Parses the tokens of {@code line}; {@link ParsedArgs#nextArgument()} is then a token
+     * index of {@code line}. The values are copied, so {@code line} may be reused at once.
+     */
+    public ParsedArgs parse(CommandLine line) throws ArgsException {
+        return new Parser(line, ArgsDefaults.NONE).parse();
+    }
+
+    ParsedArgs parse(String[] args, int from) throws ArgsException {
+        return new Parser(args, from, null, false, ArgsDefaults.NONE).parse();
+    }
+
+    /**
+     * Converts fallback values, given as text by argument id, once for use by
+     * {@link #parse(String[], ArgsDefaults)}. Booleans take {@code true} or {@code false};
+     * {@code [*]} values are split like a {@link CommandLine}.
+     */
+    public ArgsDefaults defaults(Map<Character, String> valuesById) throws ArgsException {
+        ArgumentValues values = new ArgumentValues(slotCount);
+        long found = 0;
+        for (Map.Entry<Character, String> value : valuesById.entrySet()) {
+            char id = value.getKey();
+            ArgumentMarshaler m = marshalerFor(id);
+            if (m == null) {
+                throw new ArgsException(UNEXPECTED_ARGUMENT, id, null);
+            }
+            try {
+                if (setDefault(m, value.getValue(), values, slots[id])) {
+                    found |= 1L << slots[id];
+                }
+            } catch (ArgsException e) {
+                throw e.withErrorArgumentId(id);
+            }
+        }
+        return new ArgsDefaults(values, found);
+    }
+
+    /**
+     * Parses without converting numeric values: they are converted on first read, and a
+     * malformed number surfaces then as an {@link IllegalArgumentException} wrapping the
+     * {@link ArgsException}. Unknown flags and missing parameters are still reported here.
+     */
+    public ParsedArgs parseLazily(String[] args) throws ArgsException {
+        return new Parser(args, 0, null, true, ArgsDefaults.NONE).parse();
+    }
+
+    public ArgsErrors validate(String[] args) {
+        ArgsErrors errors = new ArgsErrors();
+        try {
+            new Parser(args, 0, errors, false, ArgsDefaults.NONE).parse();
+        } catch (ArgsException e) {
+            throw new IllegalStateException("Validation reports errors instead of throwing", e);
+        }
+        return errors;
+    }
+
+    /**
+     * This thread's {@link ReusableArgs} for this schema; each of its parses replaces the last.
+     * A thread keeps instances for its {@value #REUSABLE_ARGS_PER_THREAD} most recently used
+     * schemas only; callers that need one for longer should own a {@code new ReusableArgs(schema)}.
+     */
+    public ReusableArgs reusableArgs() {
+        return reusableArgs.get().computeIfAbsent(this, ReusableArgs::new);
+    }
+
+    /**
+     * The ids of every argument, in schema order.
+     */
+    public String argumentIds() {
+        char[] ids = new char[slotCount];
+        for (char id = 0; id < ARGUMENT_ID_LIMIT; id++) {
+            if (slots[id] >= 0) {
+                ids[slots[id]] = id;
+            }
+        }
+        return new String(ids);
+    }
+
+    /**
+     * The schema type of an argument, e.g. {@code ""}, {@code "#"} or {@code "[*]"}; {@code null} if undefined.
+     */
+    public String typeOf(char argumentId) {
+        return argumentId < ARGUMENT_ID_LIMIT ? types[argumentId] : null;
+    }
+
+    /**
+     * The long name of an argument, or {@code null} if it has none.
+     */
+    public String longNameOf(char argumentId) {
+        return argumentId < ARGUMENT_ID_LIMIT ? longNamesById[argumentId] : null;
+    }
+
+    /**
+     * Whether any {@code [@*]} argument reads {@code @path} tokens from the file system.
+     */
+    public boolean expandsArgumentFiles() {
+        return expandsArgumentFiles;
+    }
+
+    public BooleanArgKey booleanKey(char argumentId) {
+        return new BooleanArgKey(this, argumentId, keySlot(argumentId, ""));
+    }
+
+    public IntArgKey intKey(char argumentId) {
+        return new IntArgKey(this, argumentId, keySlot(argumentId, "#"));
+    }
+
+    public DoubleArgKey doubleKey(char argumentId) {
+        return new DoubleArgKey(this, argumentId, keySlot(argumentId, "##"));
+    }
+
+    public ArgKey<String> stringKey(char argumentId) {
+        return new ArgKey<>(this, argumentId, keySlot(argumentId, "*"), ArgumentValues::getString);
+    }
+
+    public ArgKey<List<String>> stringListKey(char argumentId) {
+        return new ArgKey<>(this, argumentId, keySlot(argumentId, "[*]", "[@*]"),
+                ArgumentValues::getStringList);
+    }
+
+    public ArgKey<int[]> intArrayKey(char argumentId) {
+        return new ArgKey<>(this, argumentId, keySlot(argumentId, "[#]"),
+                (values, slot) -> values.getPrimitiveList(slot).toIntArray());
+    }
+
+    public ArgKey<long[]> longArrayKey(char argumentId) {
+        return new ArgKey<>(this, argumentId, keySlot(argumentId, "[#L]"),
+                (values, slot) -> values.getPrimitiveList(slot).toLongArray());
+    }
+
+    public ArgKey<double[]> doubleArrayKey(char argumentId) {
+        return new ArgKey<>(this, argumentId, keySlot(argumentId, "[##]"),
+                (values, slot) -> values.getPrimitiveList(slot).toDoubleArray());
+    }
+
+    private int keySlot(char argumentId, String... acceptedTypes) {
+        if (!Arrays.asList(acceptedTypes).contains(typeOf(argumentId))) {
+            throw new IllegalArgumentException("-" + argumentId + " is not a '" + acceptedTypes[0] + "' argument");
+        }
+        return slots[argumentId];
+    }
+
+    String definition() {
+        return definition;
+    }
+
+    int slotCount() {
+        return slotCount;
+    }
+
+    ArgumentMarshaler marshalerFor(char argumentId) {
+        return argumentId < ARGUMENT_ID_LIMIT ? marshalers[argumentId] : null;
+    }
+
+    int slotOf(char argumentId) {
+        return argumentId < ARGUMENT_ID_LIMIT ? slots[argumentId] : -1;
+    }
+
+    /**
+     * Resolves the long name, or unique prefix of one, in {@code text[start..end)} to its argument id.
+     */
+    char longArgumentId(CharSequence text, int start, int end) throws ArgsException {
+        int name = longNames.find(text, start, end);
+        if (name >= 0) {
+            return longIds[name];
+        }
+        throw ArgsException.stackless(name == NameTrie.AMBIGUOUS ? AMBIGUOUS_ARGUMENT : UNEXPECTED_LONG_ARGUMENT,
+                text.subSequence(start, end).toString());
+    }
+
+    private static boolean setDefault(ArgumentMarshaler m, String value, ArgumentValues values, int slot)
+            throws ArgsException {
+        if (m instanceof BooleanArgumentMarshaler) {
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                throw ArgsException.stackless(INVALID_BOOLEAN, value);
+            }
+            values.setBoolean(slot, Boolean.parseBoolean(value));
+            return values.getBoolean(slot);
+        }
+        m.set(defaultTokens(m, value), values, slot);
+        return true;
+    }
+
+    private static Iterator<String> defaultTokens(ArgumentMarshaler m, String value) throws ArgsException {
+        if (!(m instanceof StringArrayArgumentMarshaler)) {
+            return Collections.singletonList(value).iterator();
+        }
+        return Arrays.asList(new CommandLine().tokenize(value).tokens()).iterator();
+    }
+
+    private void parseSchema(String schema, Map<String, Character> longNameIds) throws ArgsException {
+        for (String element : schema.split(",")) {
+            if (!element.isEmpty()) {
+                parseSchemaElement(element.trim(), longNameIds);
+            }
+        }
+    }
+
+    private void parseSchemaElement(String element, Map<String, Character> longNameIds) throws ArgsException {
+        char elementId = element.charAt(0);
+        String elementTail = element.substring(1);
+        validateSchemaElementId(elementId);
+        if (elementTail.startsWith("|")) {
+            int typeStart = longNameEnd(elementTail);
+            String longName = elementTail.substring(1, typeStart);
+            declareLongName(elementId, longName, element, longNameIds);
+            longNamesById[elementId] = longName;
+            elementTail = elementTail.substring(typeStart);
+        }
+        if (elementTail.isEmpty()) {
+            define(elementId, elementTail, new BooleanArgumentMarshaler());
+        } else if (elementTail.equals("*")) {
+            define(elementId, elementTail, new StringArgumentMarshaler());
+        } else if (elementTail.equals("#")) {
+            define(elementId, elementTail, new IntegerArgumentMarshaler());
+        } else if (elementTail.equals("##")) {
+            define(elementId, elementTail, new DoubleArgumentMarshaler());
+        } else if (elementTail.equals("[*]")) {
+            define(elementId, elementTail, new StringArrayArgumentMarshaler(false));
+        } else if (elementTail.equals("[@*]")) {
+            define(elementId, elementTail, new StringArrayArgumentMarshaler(true));
+            expandsArgumentFiles = true;
+        } else if (elementTail.equals("[#]")) {
+            define(elementId, elementTail, new IntegerArrayArgumentMarshaler());
+        } else if (elementTail.equals("[#L]")) {
+            define(elementId, elementTail, new LongArrayArgumentMarshaler());
+        } else if (elementTail.equals("[##]")) {
+            define(elementId, elementTail, new DoubleArrayArgumentMarshaler());
+        } else {
+            throw new ArgsException(INVALID_ARGUMENT_FORMAT, elementId, elementTail);
+        }
+    }
+
+    private void define(char elementId, String type, ArgumentMarshaler marshaler) {
+        if (slots[elementId] < 0) {
+            slots[elementId] = (byte) slotCount++;
+        }
+        marshalers[elementId] = marshaler;
+        types[elementId] = type;
+    }
+
+    private static int longNameEnd(String elementTail) {
+        int end = 1;
+        while (end < elementTail.length()
+                && (Character.isLetterOrDigit(elementTail.charAt(end)) || elementTail.charAt(end) == '-')) {
+            end++;
+        }
+        return end;
+    }
+
+    private static void declareLongName(char elementId, String longName, String element,
+                                        Map<String, Character> longNameIds) throws ArgsException {
+        if (longName.isEmpty() || !Character.isLetter(longName.charAt(0)) || longNameIds.containsKey(longName)) {
+            throw new ArgsException(INVALID_ARGUMENT_FORMAT, elementId, element);
+        }
+        longNameIds.put(longName, elementId);
+    }
+
+    private void validateSchemaElementId(char elementId) throws ArgsException {
+        if (elementId >= ARGUMENT_ID_LIMIT || !Character.isLetter(elementId)) {
+            throw new ArgsException(INVALID_ARGUMENT_NAME, elementId, null);
+        }
+    }
+
+    private class Parser {
+        private final ArgumentValues values = new ArgumentValues(slotCount);
+        private final TokenCursor tokens = new TokenCursor();
+        private final ArgsErrors errors;
+        private final boolean lazy;
+        private final ArgsDefaults defaults;
+        private final int argumentCount;
+
+        Parser(String[] args, int from, ArgsErrors errors, boolean lazy, ArgsDefaults defaults) {
+            tokens.reset(args, from, args.length);
+            this.errors = errors;
+            this.lazy = lazy;
+            this.defaults = defaults;
+            argumentCount = args.length;
+        }
+
+        Parser(CommandLine line, ArgsDefaults defaults) {
+            tokens.reset(line);
+            this.errors = null;
+            this.lazy = false;
+            this.defaults = defaults;
+            argumentCount = line.size();
+        }
+
+        ParsedArgs parse() throws ArgsException {
+            ArgsParseEvent event = new ArgsParseEvent();
+            event.begin();
+            long startTime = ArgsMetrics.startTime();
+            ErrorCode outcome = OK;
+            try {
+                // values are shared between threads, so they must not refer to the input
+                long argsFound = new TokenParser(ArgsSchema.this, tokens, values, errors, lazy, false).parse();
+                argsFound = defaults.applyTo(values, argsFound);
+                return new ParsedArgs(ArgsSchema.this, values, argsFound, tokens.position());
+            } catch (ArgsException e) {
+                outcome = e.getErrorCode();
+                throw e;
+            } finally {
+                if (errors != null && !errors.isEmpty()) {
+                    outcome = errors.errorCode(0);
+                }
+                ArgsMetrics.recordParse(startTime, outcome);
+                commit(event, outcome);
+            }
+        }
+
+        private void commit(ArgsParseEvent event, ErrorCode outcome) {
+            if (event.shouldCommit()) {
+                event.mode = errors != null ? "validate" : lazy ? "lazy" : "parse";
+                event.argumentCount = argumentCount;
+                event.errorCode = outcome.name();
+                event.errorCount = errors != null ? errors.size() : outcome == OK ? 0 : 1;
+                event.commit();
+            }
+        }
+    }
+
+    private static class ReusableArgsCache extends LinkedHashMap<ArgsSchema, ReusableArgs> {
+        ReusableArgsCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ArgsSchema, ReusableArgs> eldest) {
+            return size() > REUSABLE_ARGS_PER_THREAD;
+        }
+    }
+
+    private static final class CachedSchema {
+        final ArgsSchema schema;
+        volatile long lastUse;
+
+        CachedSchema(ArgsSchema schema, long tick) {
+            this.schema = schema;
+            this.lastUse = tick;
+        }
+
+        void use(long tick) {
+            // the tick only moves on misses, so a steady stream of hits only reads
+            if (lastUse != tick) {
+                lastUse = tick;
+            }
+        }
+    }
+}
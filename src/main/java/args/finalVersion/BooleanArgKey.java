@@ -0,0 +1,10 @@
+package args.finalVersion;
+
+/**
+ * Handle on a {@code boolean} argument, read unboxed by {@code getBoolean(BooleanArgKey)}.
+ */
+public final class BooleanArgKey extends ArgKey<Boolean> {
+    BooleanArgKey(ArgsSchema schema, char id, int slot) {
+        super(schema, id, slot, (values, valueSlot) -> values.getBoolean(valueSlot));
+    }
+}
@@ -0,0 +1,203 @@
+package args.finalVersion;
+
+import args.finalVersion.exception.ArgsException;
+
+import java.util.Arrays;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.MALFORMED_COMMAND_LINE;
+
+/**
+ * Splits one raw command line into tokens without copying it: each token is an
+ * offset range of the input. Only tokens with quotes or escapes are decoded, into
+ * a buffer that is reused by the next {@link #tokenize} call.
+ * <p>
+ * Whitespace separates tokens; {@code '...'} is literal, {@code "..."} honours
+ * {@code \"} and {@code \\}, and a backslash outside quotes escapes the next character.
+ * The input must not change while its tokens are in use.
+ */
+public final class CommandLine {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final StringBuilder decoded = new StringBuilder();
+    private CharSequence source;
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private boolean[] inDecoded = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    public CommandLine tokenize(CharSequence source) throws ArgsException {
+        this.source = source;
+        size = 0;
+        decoded.setLength(0);
+        int length = source.length();
+        for (int i = skipWhitespace(0, length); i < length; i = skipWhitespace(i, length)) {
+            i = readToken(i, length);
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The text holding the token: the input itself, or the decode buffer for quoted tokens.
+     */
+    public CharSequence text(int token) {
+        return inDecoded[token] ? decoded : source;
+    }
+
+    public int start(int token) {
+        return starts[token];
+    }
+
+    public int end(int token) {
+        return ends[token];
+    }
+
+    public int length(int token) {
+        return ends[token] - starts[token];
+    }
+
+    public char charAt(int token, int index) {
+        return text(token).charAt(starts[token] + index);
+    }
+
+    public String token(int token) {
+        return text(token).subSequence(starts[token], ends[token]).toString();
+    }
+
+    public String[] tokens() {
+        String[] tokens = new String[size];
+        for (int token = 0; token < size; token++) {
+            tokens[token] = token(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * The command line that {@link #tokenize} splits back into {@code argv}: every token
+     * that is empty or holds whitespace, quotes or backslashes is single-quoted. The
+     * result is always a single line, for line-delimited logs and protocols.
+     *
+     * @throws IllegalArgumentException if a token contains a line break
+     */
+    public static String join(String... argv) {
+        StringBuilder line = new StringBuilder();
+        for (String token : argv) {
+            if (token.indexOf('\n') >= 0 || token.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Arguments cannot contain line breaks: " + token);
+            }
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            if (needsQuotes(token)) {
+                line.append('\'').append(token.replace("'", "'\\''")).append('\'');
+            } else {
+                line.append(token);
+            }
+        }
+        return line.toString();
+    }
+
+    private static boolean needsQuotes(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (Character.isWhitespace(c) || c == '\'' || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+        return token.isEmpty();
+    }
+
+    private int skipWhitespace(int i, int length) {
+        while (i < length && Character.isWhitespace(source.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private int readToken(int start, int length) throws ArgsException {
+        for (int i = start; i < length; i++) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                add(start, i, false);
+                return i;
+            }
+            if (c == '\'' || c == '"' || c == '\\') {
+                return decodeToken(start, i, length);
+            }
+        }
+        add(start, length, false);
+        return length;
+    }
+
+    private int decodeToken(int start, int plainEnd, int length) throws ArgsException {
+        int decodedStart = decoded.length();
+        decoded.append(source, start, plainEnd);
+        int i = plainEnd;
+        while (i < length && !Character.isWhitespace(source.charAt(i))) {
+            char c = source.charAt(i);
+            if (c == '\'') {
+                i = appendSingleQuoted(i + 1, length);
+            } else if (c == '"') {
+                i = appendDoubleQuoted(i + 1, length);
+            } else if (c == '\\') {
+                i = appendEscaped(i + 1, length);
+            } else {
+                decoded.append(c);
+                i++;
+            }
+        }
+        add(decodedStart, decoded.length(), true);
+        return i;
+    }
+
+    private int appendSingleQuoted(int start, int length) throws ArgsException {
+        for (int i = start; i < length; i++) {
+            if (source.charAt(i) == '\'') {
+                decoded.append(source, start, i);
+                return i + 1;
+            }
+        }
+        throw malformed("unterminated ' at " + (start - 1));
+    }
+
+    private int appendDoubleQuoted(int start, int length) throws ArgsException {
+        for (int i = start; i < length; i++) {
+            char c = source.charAt(i);
+            if (c == '"') {
+                return i + 1;
+            }
+            if (c == '\\' && i + 1 < length && (source.charAt(i + 1) == '"' || source.charAt(i + 1) == '\\')) {
+                c = source.charAt(++i);
+            }
+            decoded.append(c);
+        }
+        throw malformed("unterminated \" at " + (start - 1));
+    }
+
+    private int appendEscaped(int i, int length) throws ArgsException {
+        if (i == length) {
+            throw malformed("trailing \\");
+        }
+        decoded.append(source.charAt(i));
+        return i + 1;
+    }
+
+    private void add(int start, int end, boolean decodedToken) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            inDecoded = Arrays.copyOf(inDecoded, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        inDecoded[size] = decodedToken;
+        size++;
+    }
+
+    private static ArgsException malformed(String problem) {
+        return new ArgsException(MALFORMED_COMMAND_LINE, problem);
+    }
+}
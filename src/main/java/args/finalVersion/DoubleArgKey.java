@@ -0,0 +1,10 @@
+package args.finalVersion;
+
+/**
+ * Handle on a {@code double} argument, read unboxed by {@code getDouble(DoubleArgKey)}.
+ */
+public final class DoubleArgKey extends ArgKey<Double> {
+    DoubleArgKey(ArgsSchema schema, char id, int slot) {
+        super(schema, id, slot, (values, valueSlot) -> values.getDouble(valueSlot));
+    }
+}
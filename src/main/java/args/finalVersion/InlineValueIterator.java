@@ -0,0 +1,32 @@
+package args.finalVersion;
+
+import java.util.Iterator;
+
+/**
+ * Yields the value of a {@code --name=value} token before the remaining tokens, so
+ * marshalers take inline and separate values the same way.
+ */
+final class InlineValueIterator implements Iterator<String> {
+    private final Iterator<String> rest;
+    private String value;
+
+    InlineValueIterator(String value, Iterator<String> rest) {
+        this.value = value;
+        this.rest = rest;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return value != null || rest.hasNext();
+    }
+
+    @Override
+    public String next() {
+        if (value == null) {
+            return rest.next();
+        }
+        String next = value;
+        value = null;
+        return next;
+    }
+}
@@ -0,0 +1,10 @@
+package args.finalVersion;
+
+/**
+ * Handle on an {@code int} argument, read unboxed by {@code getInt(IntArgKey)}.
+ */
+public final class IntArgKey extends ArgKey<Integer> {
+    IntArgKey(ArgsSchema schema, char id, int slot) {
+        super(schema, id, slot, (values, valueSlot) -> values.getInt(valueSlot));
+    }
+}
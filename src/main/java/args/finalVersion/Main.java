@@ -1,12 +1,21 @@
 package args.finalVersion;
 
 
+import args.finalVersion.daemon.ArgsDaemon;
 import args.finalVersion.exception.ArgsException;
 
+import java.io.IOException;
+
 public class Main {
-    public static void main(String[] args) {
+    private static final String SCHEMA = "l,p#,d*";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--daemon")) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : 0);
+            return;
+        }
         try {
-            Args arg = new Args("l,p#,d*", args);
+            Args arg = new Args(SCHEMA, args);
 
             // Check if arguments exist and get their values
             boolean logging = arg.getBoolean('l');
@@ -20,4 +29,15 @@ public class Main {
             System.out.println("Error parsing arguments: " + e.errorMessage());
         }
     }
+
+    // Keeps one warmed-up parser resident; clients connect with ArgsDaemonClient
+    private static void serve(int port) throws IOException, InterruptedException {
+        try {
+            ArgsDaemon daemon = ArgsDaemon.start(ArgsSchema.compile(SCHEMA), port);
+            System.out.println("Parsing '" + SCHEMA + "' on 127.0.0.1:" + daemon.port());
+            Thread.currentThread().join();
+        } catch (ArgsException e) {
+            System.out.println("Error compiling schema: " + e.errorMessage());
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package args.finalVersion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable trie over a fixed set of names, flattened into arrays when it is built.
+ * A lookup costs one binary search over a node's edge labels per character, however
+ * many names there are, and resolves both exact names and unique prefixes.
+ */
+final class NameTrie {
+    static final int NOT_FOUND = -1;
+    static final int AMBIGUOUS = -2;
+
+    private final char[][] labels;
+    private final int[][] children;
+    private final int[] exact;
+    private final int[] unique;
+
+    NameTrie(List<String> names) {
+        Node root = new Node();
+        for (int i = 0; i < names.size(); i++) {
+            root.add(names.get(i), i);
+        }
+        List<Node> nodes = new ArrayList<>();
+        root.number(nodes);
+        labels = new char[nodes.size()][];
+        children = new int[nodes.size()][];
+        exact = new int[nodes.size()];
+        unique = new int[nodes.size()];
+        for (Node node : nodes) {
+            freeze(node);
+        }
+    }
+
+    /**
+     * The index of the name equal to {@code text[start..end)}, else of the only name it is a
+     * prefix of; {@link #NOT_FOUND} or {@link #AMBIGUOUS} otherwise.
+     */
+    int find(CharSequence text, int start, int end) {
+        if (start == end) {
+            return NOT_FOUND;
+        }
+        int node = 0;
+        for (int i = start; i < end; i++) {
+            int edge = Arrays.binarySearch(labels[node], text.charAt(i));
+            if (edge < 0) {
+                return NOT_FOUND;
+            }
+            node = children[node][edge];
+        }
+        return exact[node] != NOT_FOUND ? exact[node] : unique[node];
+    }
+
+    private void freeze(Node node) {
+        int edgeCount = node.edges.size();
+        labels[node.number] = new char[edgeCount];
+        children[node.number] = new int[edgeCount];
+        int edge = 0;
+        for (Map.Entry<Character, Node> child : node.edges.entrySet()) {
+            labels[node.number][edge] = child.getKey();
+            children[node.number][edge++] = child.getValue().number;
+        }
+        exact[node.number] = node.exact;
+        unique[node.number] = node.unique;
+    }
+
+    private static final class Node {
+        private final TreeMap<Character, Node> edges = new TreeMap<>();
+        private int exact = NOT_FOUND;
+        private int unique = NOT_FOUND;
+        private int number;
+
+        void add(String name, int index) {
+            Node node = this;
+            for (int i = 0; i < name.length(); i++) {
+                node.claim(index);
+                node = node.edges.computeIfAbsent(name.charAt(i), c -> new Node());
+            }
+            node.claim(index);
+            node.exact = index;
+        }
+
+        private void claim(int index) {
+            unique = unique == NOT_FOUND ? index : AMBIGUOUS;
+        }
+
+        void number(List<Node> nodes) {
+            number = nodes.size();
+            nodes.add(this);
+            for (Node child : edges.values()) {
+                child.number(nodes);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package args.finalVersion;
+
+import args.finalVersion.exception.ArgsException;
+import args.finalVersion.marshaler.*;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Immutable result of one {@link ArgsSchema#parse(String[])} call; safe to share between threads.
+ * Values from {@link ArgsSchema#parseLazily(String[])} are converted once, on first read.
+ */
+public final class ParsedArgs {
+    private final ArgsSchema schema;
+    private final ArgumentValues values;
+    private final long argsFound;
+    private final int nextArgument;
+
+    ParsedArgs(ArgsSchema schema, ArgumentValues values, long argsFound, int nextArgument) {
+        this.schema = schema;
+        this.values = values;
+        this.argsFound = argsFound;
+        this.nextArgument = nextArgument;
+    }
+
+    public boolean has(char arg) {
+        int slot = schema.slotOf(arg);
+        return slot >= 0 && (argsFound & 1L << slot) != 0;
+    }
+
+    public boolean has(ArgKey<?> key) {
+        return (argsFound & 1L << slotOf(key)) != 0;
+    }
+
+    public int nextArgument() {
+        return nextArgument;
+    }
+
+    public boolean getBoolean(char arg) {
+        return BooleanArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public String getString(char arg) {
+        return StringArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public int getInt(char arg) {
+        return IntegerArgumentMarshaler.getValue(resolved(arg), values, schema.slotOf(arg));
+    }
+
+    public double getDouble(char arg) {
+        return DoubleArgumentMarshaler.getValue(resolved(arg), values, schema.slotOf(arg));
+    }
+
+    public String[] getStringArray(char arg) {
+        return StringArrayArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public int[] getIntArray(char arg) {
+        return IntegerArrayArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public long[] getLongArray(char arg) {
+        return LongArrayArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public double[] getDoubleArray(char arg) {
+        return DoubleArrayArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    /**
+     * Read-only view of a {@code [*]} argument; tokens from an {@code @file} are decoded as they are read.
+     */
+    public List<String> getStringList(char arg) {
+        return StringArrayArgumentMarshaler.getList(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    /**
+     * Streams a {@code [*]} argument without copying it; parallel streams split the tokens by index.
+     */
+    public Stream<String> getStringStream(char arg) {
+        return getStringList(arg).stream();
+    }
+
+    public boolean getBoolean(BooleanArgKey key) {
+        return values.getBoolean(slotOf(key));
+    }
+
+    public int getInt(IntArgKey key) {
+        return values.getInt(resolvedSlot(key));
+    }
+
+    public double getDouble(DoubleArgKey key) {
+        return values.getDouble(resolvedSlot(key));
+    }
+
+    public <T> T get(ArgKey<T> key) {
+        resolvedSlot(key);
+        return key.read(values);
+    }
+
+    private int slotOf(ArgKey<?> key) {
+        return key.slotIn(schema);
+    }
+
+    private int resolvedSlot(ArgKey<?> key) {
+        int slot = slotOf(key);
+        if (values.isDeferred(slot)) {
+            convertDeferred(key.id, (DeferredArgumentMarshaler) schema.marshalerFor(key.id), slot);
+        }
+        return slot;
+    }
+
+    private ArgumentMarshaler resolved(char arg) {
+        ArgumentMarshaler m = schema.marshalerFor(arg);
+        int slot = schema.slotOf(arg);
+        if (slot >= 0 && values.isDeferred(slot)) {
+            convertDeferred(arg, (DeferredArgumentMarshaler) m, slot);
+        }
+        return m;
+    }
+
+    private void convertDeferred(char arg, DeferredArgumentMarshaler m, int slot) {
+        synchronized (values) {
+            if (values.isDeferred(slot)) {
+                try {
+                    m.convert(values.deferredParameter(slot), values, slot);
+                } catch (ArgsException e) {
+                    ArgsException located = e.withErrorArgumentId(arg);
+                    throw new IllegalArgumentException(located.errorMessage(), located);
+                }
+                values.markConverted(slot);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package args.finalVersion;
+
+/**
+ * The command chosen by {@link ArgsCommands#parse(String[])} and its parsed arguments;
+ * {@link ParsedArgs#nextArgument()} indexes the full argument array.
+ */
+public final class ParsedCommand {
+    private final String name;
+    private final ParsedArgs args;
+
+    ParsedCommand(String name, ParsedArgs args) {
+        this.name = name;
+        this.args = args;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public ParsedArgs args() {
+        return args;
+    }
+}
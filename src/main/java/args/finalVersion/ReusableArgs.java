@@ -0,0 +1,184 @@
+package args.finalVersion;
+
+import args.finalVersion.exception.ArgsException;
+import args.finalVersion.exception.ArgsException.ErrorCode;
+import args.finalVersion.marshaler.*;
+import args.finalVersion.monitoring.ArgsMetrics;
+import args.finalVersion.monitoring.ArgsParseEvent;
+
+import java.util.List;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.OK;
+
+/**
+ * Mutable, single-threaded parse state that is refilled by every {@link #parse} call.
+ * Parsing booleans, strings, ints and doubles allocates nothing once the instance
+ * exists; list arguments reuse their storage but may still grow it.
+ * <p>
+ * A raw command line can be parsed straight from a {@link CharSequence}: flags are
+ * read in place, numbers are parsed from their ranges of the input, and string
+ * values become {@code String}s only when read.
+ * <p>
+ * Values are only valid until the next {@code parse} or {@link #reset()}. Use
+ * {@link ArgsSchema#reusableArgs()} for one instance per thread.
+ */
+public final class ReusableArgs {
+    private final ArgsSchema schema;
+    private final ArgumentValues values;
+    private final TokenCursor tokens = new TokenCursor();
+    private final CommandLine commandLine = new CommandLine();
+    private final TokenParser parser;
+    // re-armed by begin() on every parse, so even the JFR event is not allocated per call
+    private final ArgsParseEvent event = new ArgsParseEvent();
+    private long argsFound;
+    private int nextArgument;
+
+    public ReusableArgs(ArgsSchema schema) {
+        this.schema = schema;
+        this.values = new ArgumentValues(schema.slotCount());
+        this.parser = new TokenParser(schema, tokens, values, null, false, true);
+    }
+
+    public ReusableArgs parse(String[] args) throws ArgsException {
+        return parse(args, 0, args.length);
+    }
+
+    /**
+     * Parses {@code args[from..to)}; {@link #nextArgument()} is then an index into {@code args}.
+     */
+    public ReusableArgs parse(String[] args, int from, int to) throws ArgsException {
+        reset();
+        tokens.reset(args, from, to);
+        return parseTokens(to - from);
+    }
+
+    /**
+     * Tokenizes and parses one command line; {@link #nextArgument()} is then an index
+     * into {@link #commandLine()}. String values still refer to {@code line} until
+     * {@link #getString} first reads them, so it must not change until then; use
+     * {@link ArgsSchema#parse(CommandLine)} for values that are copied at once.
+     */
+    public ReusableArgs parse(CharSequence line) throws ArgsException {
+        reset();
+        tokens.reset(commandLine.tokenize(line));
+        return parseTokens(commandLine.size());
+    }
+
+    /**
+     * The tokens of the last {@link #parse(CharSequence)}, e.g. to read the operands after the flags.
+     */
+    public CommandLine commandLine() {
+        return commandLine;
+    }
+
+    private ReusableArgs parseTokens(int argumentCount) throws ArgsException {
+        event.begin();
+        long startTime = ArgsMetrics.startTime();
+        ErrorCode outcome = OK;
+        try {
+            argsFound = parser.parse();
+            nextArgument = tokens.position();
+            return this;
+        } catch (ArgsException e) {
+            outcome = e.getErrorCode();
+            throw e;
+        } finally {
+            ArgsMetrics.recordParse(startTime, outcome);
+            commit(argumentCount, outcome);
+        }
+    }
+
+    public void reset() {
+        values.clear();
+        argsFound = 0;
+        nextArgument = 0;
+        tokens.reset(null, 0, 0);
+    }
+
+    public boolean has(char arg) {
+        int slot = schema.slotOf(arg);
+        return slot >= 0 && (argsFound & 1L << slot) != 0;
+    }
+
+    public boolean has(ArgKey<?> key) {
+        return (argsFound & 1L << slotOf(key)) != 0;
+    }
+
+    public int nextArgument() {
+        return nextArgument;
+    }
+
+    public boolean getBoolean(char arg) {
+        return BooleanArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    /**
+     * After a {@link #parse(CharSequence)} the value is copied out of the input on the
+     * first read, so the input must still hold it then; later reads return that copy.
+     */
+    public String getString(char arg) {
+        return StringArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public int getInt(char arg) {
+        return IntegerArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public double getDouble(char arg) {
+        return DoubleArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public String[] getStringArray(char arg) {
+        return StringArrayArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public int[] getIntArray(char arg) {
+        return IntegerArrayArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public long[] getLongArray(char arg) {
+        return LongArrayArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public double[] getDoubleArray(char arg) {
+        return DoubleArrayArgumentMarshaler.getValue(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    /**
+     * List elements are copied from the input during the parse.
+     */
+    public List<String> getStringList(char arg) {
+        return StringArrayArgumentMarshaler.getList(schema.marshalerFor(arg), values, schema.slotOf(arg));
+    }
+
+    public boolean getBoolean(BooleanArgKey key) {
+        return values.getBoolean(slotOf(key));
+    }
+
+    public int getInt(IntArgKey key) {
+        return values.getInt(slotOf(key));
+    }
+
+    public double getDouble(DoubleArgKey key) {
+        return values.getDouble(slotOf(key));
+    }
+
+    public <T> T get(ArgKey<T> key) {
+        slotOf(key);
+        return key.read(values);
+    }
+
+    private int slotOf(ArgKey<?> key) {
+        return key.slotIn(schema);
+    }
+
+    private void commit(int argumentCount, ErrorCode outcome) {
+        if (event.shouldCommit()) {
+            event.mode = "reusable";
+            event.argumentCount = argumentCount;
+            event.errorCode = outcome.name();
+            event.errorCount = outcome == OK ? 0 : 1;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package args.finalVersion;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Resettable iterator over a slice of a {@code String[]} or over a tokenized
+ * {@link CommandLine}, so a {@link ReusableArgs} can hand tokens to the marshalers
+ * without wrapping each new input. Command-line tokens become {@code String}s only
+ * when {@link #next()} is called.
+ */
+final class TokenCursor implements Iterator<String> {
+    private String[] tokens;
+    private CommandLine commandLine;
+    private int position;
+    private int end;
+
+    void reset(String[] tokens, int from, int to) {
+        this.tokens = tokens;
+        this.commandLine = null;
+        this.position = from;
+        this.end = to;
+    }
+
+    void reset(CommandLine commandLine) {
+        this.tokens = null;
+        this.commandLine = commandLine;
+        this.position = 0;
+        this.end = commandLine.size();
+    }
+
+    int position() {
+        return position;
+    }
+
+    boolean nextIsFlag() {
+        return hasNext() && end(position) > start(position) && text(position).charAt(start(position)) == '-';
+    }
+
+    int skip() {
+        return position++;
+    }
+
+    CharSequence text(int token) {
+        return tokens != null ? tokens[token] : commandLine.text(token);
+    }
+
+    int start(int token) {
+        return tokens != null ? 0 : commandLine.start(token);
+    }
+
+    int end(int token) {
+        return tokens != null ? tokens[token].length() : commandLine.end(token);
+    }
+
+    /**
+     * The command line being walked, or {@code null} for a {@code String[]}.
+     */
+    CommandLine commandLine() {
+        return commandLine;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < end;
+    }
+
+    @Override
+    public String next() {
+        if (position >= end) {
+            throw new NoSuchElementException();
+        }
+        return tokens != null ? tokens[position++] : commandLine.token(position++);
+    }
+}
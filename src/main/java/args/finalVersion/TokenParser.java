@@ -0,0 +1,162 @@
+package args.finalVersion;
+
+import args.finalVersion.exception.ArgsErrors;
+import args.finalVersion.exception.ArgsException;
+import args.finalVersion.marshaler.*;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.UNEXPECTED_ARGUMENT;
+import static args.finalVersion.exception.ArgsException.ErrorCode.UNEXPECTED_VALUE;
+
+/**
+ * The one parse loop behind {@link ArgsSchema#parse} and {@link ReusableArgs}: walks the
+ * flags at the start of a {@link TokenCursor} and stores their values in the caller's
+ * {@link ArgumentValues}. It stops before the first operand and after {@code --}.
+ * <p>
+ * Errors go to the {@link ArgsErrors} when there are any, else the first one is thrown.
+ * Values of {@link DeferredArgumentMarshaler}s are only claimed when {@code lazy}. When
+ * {@code slices} is set, string and number values of a {@link CommandLine}, and inline
+ * {@code --name=value} values, are handed to {@link SliceArgumentMarshaler}s as ranges of
+ * their token, so the values may refer to the input until they are read.
+ */
+final class TokenParser {
+    private final ArgsSchema schema;
+    private final TokenCursor tokens;
+    private final ArgumentValues values;
+    private final ArgsErrors errors;
+    private final boolean lazy;
+    private final boolean slices;
+    private long argsFound;
+
+    TokenParser(ArgsSchema schema, TokenCursor tokens, ArgumentValues values, ArgsErrors errors, boolean lazy,
+                boolean slices) {
+        this.schema = schema;
+        this.tokens = tokens;
+        this.values = values;
+        this.errors = errors;
+        this.lazy = lazy;
+        this.slices = slices;
+    }
+
+    /**
+     * Parses the flags of the current input of {@code tokens}.
+     *
+     * @return the mask of the slots that were set
+     */
+    long parse() throws ArgsException {
+        argsFound = 0;
+        while (tokens.nextIsFlag()) {
+            int token = tokens.skip();
+            CharSequence text = tokens.text(token);
+            int start = tokens.start(token);
+            int end = tokens.end(token);
+            if (isEndOfArguments(text, start, end)) {
+                break;
+            } else if (isLongArgument(text, start, end)) {
+                parseLongArgument(text, start, end);
+            } else {
+                for (int i = start + 1; i < end; i++) {
+                    parseArgumentCharacter(text.charAt(i));
+                }
+            }
+        }
+        return argsFound;
+    }
+
+    static boolean isLongArgument(CharSequence text, int start, int end) {
+        return end - start > 2 && text.charAt(start) == '-' && text.charAt(start + 1) == '-';
+    }
+
+    static boolean isEndOfArguments(CharSequence text, int start, int end) {
+        return end - start == 2 && text.charAt(start) == '-' && text.charAt(start + 1) == '-';
+    }
+
+    private static int valueSeparator(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '=') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private void parseLongArgument(CharSequence text, int start, int end) throws ArgsException {
+        int separator = valueSeparator(text, start + 2, end);
+        char argChar;
+        try {
+            argChar = schema.longArgumentId(text, start + 2, separator);
+        } catch (ArgsException e) {
+            report(e);
+            return;
+        }
+        ArgumentMarshaler m = schema.marshalerFor(argChar);
+        int slot = schema.slotOf(argChar);
+        argsFound |= 1L << slot;
+        try {
+            if (separator == end) {
+                set(m, slot);
+            } else {
+                setInline(m, slot, text, separator + 1, end);
+            }
+        } catch (ArgsException e) {
+            report(e.withErrorArgumentId(argChar));
+        }
+    }
+
+    private void parseArgumentCharacter(char argChar) throws ArgsException {
+        ArgumentMarshaler m = schema.marshalerFor(argChar);
+        if (m == null) {
+            reportUnexpectedArgument(argChar);
+            return;
+        }
+        int slot = schema.slotOf(argChar);
+        argsFound |= 1L << slot;
+        try {
+            set(m, slot);
+        } catch (ArgsException e) {
+            report(e.withErrorArgumentId(argChar));
+        }
+    }
+
+    private void set(ArgumentMarshaler m, int slot) throws ArgsException {
+        if (lazy && m instanceof DeferredArgumentMarshaler) {
+            ((DeferredArgumentMarshaler) m).defer(tokens, values, slot);
+        } else if (slices && tokens.commandLine() != null && m instanceof SliceArgumentMarshaler && tokens.hasNext()) {
+            int parameter = tokens.skip();
+            ((SliceArgumentMarshaler) m).setSlice(tokens.text(parameter), tokens.start(parameter),
+                    tokens.end(parameter), values, slot);
+        } else {
+            m.set(tokens, values, slot);
+        }
+    }
+
+    private void setInline(ArgumentMarshaler m, int slot, CharSequence text, int start, int end) throws ArgsException {
+        if (m instanceof BooleanArgumentMarshaler) {
+            throw ArgsException.stackless(UNEXPECTED_VALUE, text.subSequence(start, end).toString());
+        }
+        if (lazy && m instanceof DeferredArgumentMarshaler) {
+            ((DeferredArgumentMarshaler) m).defer(inlineValue(text, start, end), values, slot);
+        } else if (slices && m instanceof SliceArgumentMarshaler) {
+            ((SliceArgumentMarshaler) m).setSlice(text, start, end, values, slot);
+        } else {
+            m.set(inlineValue(text, start, end), values, slot);
+        }
+    }
+
+    private InlineValueIterator inlineValue(CharSequence text, int start, int end) {
+        return new InlineValueIterator(text.subSequence(start, end).toString(), tokens);
+    }
+
+    private void reportUnexpectedArgument(char argChar) throws ArgsException {
+        if (errors == null) {
+            throw ArgsException.cached(UNEXPECTED_ARGUMENT, argChar);
+        }
+        errors.add(UNEXPECTED_ARGUMENT, argChar, null);
+    }
+
+    private void report(ArgsException e) throws ArgsException {
+        if (errors == null) {
+            throw e;
+        }
+        errors.add(e.getErrorCode(), e.getErrorArgumentId(), e.getErrorParameter());
+    }
+}
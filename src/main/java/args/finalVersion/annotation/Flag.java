@@ -0,0 +1,19 @@
+package args.finalVersion.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a non-private field of an options class as the value of flag {@code -value}.
+ * {@link FlagProcessor} generates an {@code <Options>Parser} class next to the options class.
+ * Supported field types are {@code boolean}, {@code int}, {@code double}, {@code String}
+ * and {@code String[]}, matching the schema elements {@code x}, {@code x#}, {@code x##},
+ * {@code x*} and {@code x[*]}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Flag {
+    char value();
+}
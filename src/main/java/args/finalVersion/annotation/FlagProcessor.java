@@ -0,0 +1,192 @@
+package args.finalVersion.annotation;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * Generates a straight-line parser for every class with {@link Flag} fields: one
+ * {@code switch} over the flag characters that writes each value straight into its
+ * field, with no schema, marshaler lookup or reflection at run time.
+ * <p>
+ * The parser accepts what {@code ArgsSchema.compile(SCHEMA)} accepts: {@code --} ends the
+ * arguments, {@code --name} is rejected as the schema has no long names, and string arrays
+ * take {@code @file} tokens literally.
+ */
+@SupportedAnnotationTypes("args.finalVersion.annotation.Flag")
+public class FlagProcessor extends AbstractProcessor {
+    private static final Map<String, String> SCHEMA_TYPES = Map.of(
+            "boolean", "",
+            "int", "#",
+            "double", "##",
+            "java.lang.String", "*",
+            "java.lang.String[]", "[*]");
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, List<VariableElement>> optionClasses = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Flag.class)) {
+            if (isValidFlagField(element)) {
+                optionClasses.computeIfAbsent((TypeElement) element.getEnclosingElement(), c -> new ArrayList<>())
+                        .add((VariableElement) element);
+            }
+        }
+        for (Map.Entry<TypeElement, List<VariableElement>> optionClass : optionClasses.entrySet()) {
+            if (hasUniqueFlags(optionClass.getValue())) {
+                generateParser(optionClass.getKey(), optionClass.getValue());
+            }
+        }
+        return true;
+    }
+
+    private boolean isValidFlagField(Element element) {
+        char flag = element.getAnnotation(Flag.class).value();
+        Set<Modifier> modifiers = element.getModifiers();
+        if (flag >= 128 || !Character.isLetter(flag)) {
+            return error(element, "'" + flag + "' is not a valid argument name.");
+        }
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)
+                || modifiers.contains(Modifier.STATIC)) {
+            return error(element, "@Flag fields must be non-private, non-final instance fields.");
+        }
+        if (!SCHEMA_TYPES.containsKey(element.asType().toString())) {
+            return error(element, "@Flag does not support fields of type " + element.asType() + ".");
+        }
+        return true;
+    }
+
+    private boolean hasUniqueFlags(List<VariableElement> fields) {
+        Set<Character> flags = new HashSet<>();
+        boolean unique = true;
+        for (VariableElement field : fields) {
+            if (!flags.add(field.getAnnotation(Flag.class).value())) {
+                unique = error(field, "Flag -" + field.getAnnotation(Flag.class).value() + " is declared twice.");
+            }
+        }
+        return unique;
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    private void generateParser(TypeElement optionClass, List<VariableElement> fields) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(optionClass).getQualifiedName().toString();
+        String optionsName = optionClass.getQualifiedName().toString();
+        String parserName = parserNameOf(optionsName, packageName);
+        String qualifiedParserName = packageName.isEmpty() ? parserName : packageName + "." + parserName;
+        try (PrintWriter out = new PrintWriter(
+                processingEnv.getFiler().createSourceFile(qualifiedParserName, optionClass).openWriter())) {
+            writeParser(out, packageName, optionsName, parserName, fields);
+        } catch (IOException e) {
+            error(optionClass, "Could not generate " + qualifiedParserName + ": " + e.getMessage());
+        }
+    }
+
+    private static String parserNameOf(String optionsName, String packageName) {
+        String nestedName = packageName.isEmpty() ? optionsName : optionsName.substring(packageName.length() + 1);
+        return nestedName.replace('.', '_') + "Parser";
+    }
+
+    private static void writeParser(PrintWriter out, String packageName, String optionsName, String parserName,
+                                    List<VariableElement> fields) {
+        if (!packageName.isEmpty()) {
+            out.println("package " + packageName + ";");
+            out.println();
+        }
+        out.println("import args.finalVersion.exception.ArgsException;");
+        out.println("import args.finalVersion.marshaler.NumberParser;");
+        out.println();
+        out.println("import static args.finalVersion.annotation.GeneratedParserSupport.*;");
+        out.println();
+        out.println("@javax.annotation.processing.Generated(\"" + FlagProcessor.class.getName() + "\")");
+        out.println("public final class " + parserName + " {");
+        out.println("    public static final String SCHEMA = \"" + schemaOf(fields) + "\";");
+        out.println();
+        out.println("    private " + parserName + "() {");
+        out.println("    }");
+        out.println();
+        out.println("    public static " + optionsName + " parse(String[] args) throws ArgsException {");
+        out.println("        " + optionsName + " options = new " + optionsName + "();");
+        if (needsNumberParser(fields)) {
+            out.println("        NumberParser numbers = new NumberParser();");
+        }
+        out.println("        int next = 0;");
+        out.println("        while (next < args.length && args[next].startsWith(\"-\")) {");
+        out.println("            String flags = args[next++];");
+        out.println("            if (flags.equals(\"--\")) {");
+        out.println("                break;");
+        out.println("            }");
+        out.println("            if (flags.startsWith(\"--\")) {");
+        out.println("                throw unexpectedLongArgument(flags);");
+        out.println("            }");
+        out.println("            for (int i = 1; i < flags.length(); i++) {");
+        out.println("                switch (flags.charAt(i)) {");
+        for (VariableElement field : fields) {
+            writeCase(out, field);
+        }
+        out.println("                    default:");
+        out.println("                        throw unexpectedArgument(flags.charAt(i));");
+        out.println("                }");
+        out.println("            }");
+        out.println("        }");
+        out.println("        return options;");
+        out.println("    }");
+        out.println("}");
+    }
+
+    private static void writeCase(PrintWriter out, VariableElement field) {
+        char flag = field.getAnnotation(Flag.class).value();
+        String target = "options." + field.getSimpleName();
+        out.println("                    case '" + flag + "':");
+        switch (field.asType().toString()) {
+            case "boolean":
+                out.println("                        " + target + " = true;");
+                break;
+            case "int":
+                out.println("                        " + target + " = intValue(args, next++, '" + flag + "', numbers);");
+                break;
+            case "double":
+                out.println("                        " + target + " = doubleValue(args, next++, '" + flag + "', numbers);");
+                break;
+            case "java.lang.String":
+                out.println("                        " + target + " = stringValue(args, next++, '" + flag + "');");
+                break;
+            default:
+                out.println("                        " + target + " = stringArrayValue(args, next, '" + flag + "');");
+                out.println("                        next = args.length;");
+                break;
+        }
+        out.println("                        break;");
+    }
+
+    private static boolean needsNumberParser(List<VariableElement> fields) {
+        for (VariableElement field : fields) {
+            String type = field.asType().toString();
+            if (type.equals("int") || type.equals("double")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String schemaOf(List<VariableElement> fields) {
+        StringJoiner schema = new StringJoiner(",");
+        for (VariableElement field : fields) {
+            schema.add(field.getAnnotation(Flag.class).value() + SCHEMA_TYPES.get(field.asType().toString()));
+        }
+        return schema.toString();
+    }
+}
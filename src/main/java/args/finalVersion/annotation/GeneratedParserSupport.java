@@ -0,0 +1,63 @@
+package args.finalVersion.annotation;
+
+import args.finalVersion.exception.ArgsException;
+import args.finalVersion.marshaler.NumberParser;
+
+import java.util.Arrays;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.*;
+
+/**
+ * Value conversions called from parsers generated by {@link FlagProcessor}.
+ */
+public final class GeneratedParserSupport {
+
+    private GeneratedParserSupport() {
+    }
+
+    public static int intValue(String[] args, int index, char argumentId, NumberParser parser) throws ArgsException {
+        if (index >= args.length) {
+            throw ArgsException.cached(MISSING_INTEGER, argumentId);
+        }
+        if (parser.parseInt(args[index]) != NumberParser.OK) {
+            throw ArgsException.stackless(INVALID_INTEGER, args[index]).withErrorArgumentId(argumentId);
+        }
+        return parser.intValue();
+    }
+
+    public static double doubleValue(String[] args, int index, char argumentId, NumberParser parser) throws ArgsException {
+        if (index >= args.length) {
+            throw ArgsException.cached(MISSING_DOUBLE, argumentId);
+        }
+        if (parser.parseDouble(args[index]) != NumberParser.OK) {
+            throw ArgsException.stackless(INVALID_DOUBLE, args[index]).withErrorArgumentId(argumentId);
+        }
+        return parser.doubleValue();
+    }
+
+    public static String stringValue(String[] args, int index, char argumentId) throws ArgsException {
+        if (index >= args.length) {
+            throw ArgsException.cached(MISSING_STRING, argumentId);
+        }
+        return args[index];
+    }
+
+    public static String[] stringArrayValue(String[] args, int index, char argumentId) throws ArgsException {
+        if (index >= args.length) {
+            throw ArgsException.cached(MISSING_STRING, argumentId);
+        }
+        return Arrays.copyOfRange(args, index, args.length);
+    }
+
+    public static ArgsException unexpectedArgument(char argumentId) {
+        return ArgsException.cached(UNEXPECTED_ARGUMENT, argumentId);
+    }
+
+    /**
+     * {@code @Flag} fields have no long names, so every {@code --name} or {@code --name=value} is unexpected.
+     */
+    public static ArgsException unexpectedLongArgument(String arg) {
+        int separator = arg.indexOf('=', 2);
+        return ArgsException.stackless(UNEXPECTED_LONG_ARGUMENT, arg.substring(2, separator < 0 ? arg.length() : separator));
+    }
+}
@@ -0,0 +1,14 @@
+package args.finalVersion.bulk;
+
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.exception.ArgsException;
+
+/**
+ * Receives the records of a bulk parse in file order, from the thread that called
+ * {@link BulkArgsParser#parse}.
+ */
+public interface ArgsRecordHandler {
+    void onParsed(long lineNumber, ParsedArgs args);
+
+    void onError(long lineNumber, ArgsException error);
+}
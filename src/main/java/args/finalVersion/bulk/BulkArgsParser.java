@@ -0,0 +1,156 @@
+package args.finalVersion.bulk;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.CommandLine;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.exception.ArgsException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses a newline-delimited log of argv records against one compiled schema.
+ * Each batch of lines is tokenized and parsed on a fork-join pool while the next
+ * batch is read, so at most two batches are held in memory whatever the file size.
+ * Every line is split like a {@link CommandLine}, so an argv written with
+ * {@link CommandLine#join} reads back unchanged; a line that does not split is
+ * reported as a {@code MALFORMED_COMMAND_LINE} error.
+ * Logs are data, not trusted command lines, so schemas that read {@code @path}
+ * argument files are refused.
+ */
+public class BulkArgsParser {
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    private final ArgsSchema schema;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+
+    public BulkArgsParser(ArgsSchema schema) {
+        this(schema, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    public BulkArgsParser(ArgsSchema schema, ForkJoinPool pool, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive but was " + batchSize);
+        }
+        if (schema.expandsArgumentFiles()) {
+            throw new IllegalArgumentException("Bulk input cannot use a schema that reads @path argument files");
+        }
+        this.schema = schema;
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * An exception thrown by {@code handler} ends the parse: the batch in flight is
+     * cancelled and the exception is rethrown here.
+     */
+    public void parse(Path log, ArgsRecordHandler handler) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            long firstLine = 1;
+            List<String> lines = readBatch(reader);
+            ParseRange pending = null;
+            ParseRange next = null;
+            try {
+                while (true) {
+                    next = lines.isEmpty() ? null : submit(lines, firstLine);
+                    firstLine += lines.size();
+                    if (pending != null) {
+                        pending.join();
+                        pending.batch.emitTo(handler);
+                    }
+                    // the emitted batch is dropped before the next one is read
+                    pending = next;
+                    if (next == null) {
+                        return;
+                    }
+                    lines = readBatch(reader);
+                }
+            } finally {
+                if (next != null) {
+                    next.cancel(false);
+                }
+            }
+        }
+    }
+
+    private List<String> readBatch(BufferedReader reader) throws IOException {
+        List<String> lines = new ArrayList<>(batchSize);
+        String line;
+        while (lines.size() < batchSize && (line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private ParseRange submit(List<String> lines, long firstLine) {
+        ParseRange task = new ParseRange(lines, new Batch(lines.size(), firstLine), 0, lines.size());
+        pool.execute(task);
+        return task;
+    }
+
+    private static class Batch {
+        private final ParsedArgs[] parsed;
+        private final ArgsException[] errors;
+        private final long firstLine;
+
+        Batch(int size, long firstLine) {
+            parsed = new ParsedArgs[size];
+            errors = new ArgsException[size];
+            this.firstLine = firstLine;
+        }
+
+        void emitTo(ArgsRecordHandler handler) {
+            for (int i = 0; i < parsed.length; i++) {
+                if (errors[i] == null) {
+                    handler.onParsed(firstLine + i, parsed[i]);
+                } else {
+                    handler.onError(firstLine + i, errors[i]);
+                }
+            }
+        }
+    }
+
+    private class ParseRange extends RecursiveAction {
+        private final List<String> lines;
+        private final Batch batch;
+        private final int from;
+        private final int to;
+
+        ParseRange(List<String> lines, Batch batch, int from, int to) {
+            this.lines = lines;
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                parseRange();
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseRange(lines, batch, from, middle), new ParseRange(lines, batch, middle, to));
+            }
+        }
+
+        private void parseRange() {
+            CommandLine commandLine = new CommandLine();
+            for (int i = from; i < to; i++) {
+                try {
+                    batch.parsed[i] = schema.parse(commandLine.tokenize(lines.get(i)).tokens());
+                } catch (ArgsException e) {
+                    batch.errors[i] = e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package args.finalVersion.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * One source of fallback values for a {@link LayeredArgs}. Values are looked up by
+ * argument name: the long name when the schema declares one, else the argument id.
+ */
+public interface ConfigLayer {
+    String valueOf(String name);
+
+    /**
+     * The key {@code name} is looked up under; names with the same key cannot be told apart.
+     */
+    default String keyOf(String name) {
+        return name;
+    }
+
+    /**
+     * The file this layer reads, watched for changes; {@code null} for layers without one.
+     */
+    default Path file() {
+        return null;
+    }
+
+    default void reload() throws IOException {
+    }
+}
@@ -0,0 +1,35 @@
+package args.finalVersion.config;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Environment variables named {@code prefix + NAME}, e.g. {@code APP_LOG_LEVEL} for the
+ * argument {@code log-level} with prefix {@code APP_}. The environment is read once.
+ * <p>
+ * Names are upper-cased, so arguments {@code p} and {@code P} would share {@code APP_P};
+ * a {@link LayeredArgs} refuses a schema with such arguments.
+ */
+public final class EnvironmentLayer implements ConfigLayer {
+    private final String prefix;
+    private final Map<String, String> environment;
+
+    public EnvironmentLayer(String prefix) {
+        this(prefix, System.getenv());
+    }
+
+    public EnvironmentLayer(String prefix, Map<String, String> environment) {
+        this.prefix = prefix;
+        this.environment = Map.copyOf(environment);
+    }
+
+    @Override
+    public String valueOf(String name) {
+        return environment.get(keyOf(name));
+    }
+
+    @Override
+    public String keyOf(String name) {
+        return prefix + name.toUpperCase(Locale.ROOT).replace('-', '_');
+    }
+}
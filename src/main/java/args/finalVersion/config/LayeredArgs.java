@@ -0,0 +1,206 @@
+package args.finalVersion.config;
+
+import args.finalVersion.ArgsDefaults;
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.exception.ArgsException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.System.Logger;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Parses arguments on top of configuration layers: an argument missing from the
+ * command line is taken from the first layer, in the given order, that has it.
+ * <p>
+ * The layers are merged once into {@link ArgsDefaults}, so a parse never touches a
+ * file and every getter stays a plain slot read. Files of the layers are watched and
+ * the merge is rebuilt in the background when one changes; if the new content does
+ * not convert, the previous merge stays in effect and the failure is logged. Replace
+ * files by renaming a complete copy over them, or the watcher may read one half-written.
+ * A file whose directory does not exist yet is an empty layer until it appears.
+ * <p>
+ * Arguments taken from a layer count as present: {@link ParsedArgs#has} is {@code true}
+ * for them.
+ */
+public final class LayeredArgs implements Closeable {
+    private static final Logger logger = System.getLogger(LayeredArgs.class.getName());
+
+    private final ArgsSchema schema;
+    private final List<ConfigLayer> layers;
+    private final Set<Path> layerDirectories = new LinkedHashSet<>();
+    // registered with the watcher; used by the constructor, then by the watcher thread only
+    private final Set<Path> watchedDirectories = new HashSet<>();
+    private final WatchService watcher;
+    private volatile ArgsDefaults defaults;
+
+    /**
+     * @throws IllegalArgumentException if a layer cannot tell two arguments of {@code schema} apart
+     */
+    public LayeredArgs(ArgsSchema schema, List<ConfigLayer> layers) throws IOException, ArgsException {
+        this.schema = schema;
+        this.layers = List.copyOf(layers);
+        checkKeysAreDistinct();
+        defaults = merge();
+        watcher = watchFiles();
+    }
+
+    public ParsedArgs parse(String[] args) throws ArgsException {
+        return schema.parse(args, defaults);
+    }
+
+    public synchronized void reload() throws IOException, ArgsException {
+        for (ConfigLayer layer : layers) {
+            layer.reload();
+        }
+        defaults = merge();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    private ArgsDefaults merge() throws ArgsException {
+        Map<Character, String> values = new HashMap<>();
+        String ids = schema.argumentIds();
+        for (int i = 0; i < ids.length(); i++) {
+            char id = ids.charAt(i);
+            String value = layeredValueOf(nameOf(id));
+            if (value != null) {
+                values.put(id, value);
+            }
+        }
+        return schema.defaults(values);
+    }
+
+    private void checkKeysAreDistinct() {
+        String ids = schema.argumentIds();
+        for (ConfigLayer layer : layers) {
+            Map<String, Character> idsByKey = new HashMap<>();
+            for (int i = 0; i < ids.length(); i++) {
+                char id = ids.charAt(i);
+                Character other = idsByKey.putIfAbsent(layer.keyOf(nameOf(id)), id);
+                if (other != null) {
+                    throw new IllegalArgumentException("Arguments -" + other + " and -" + id + " both read "
+                            + layer.keyOf(nameOf(id)) + " from " + layer.getClass().getSimpleName());
+                }
+            }
+        }
+    }
+
+    private String nameOf(char id) {
+        String longName = schema.longNameOf(id);
+        return longName != null ? longName : String.valueOf(id);
+    }
+
+    private String layeredValueOf(String name) {
+        for (ConfigLayer layer : layers) {
+            String value = layer.valueOf(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private WatchService watchFiles() throws IOException {
+        for (ConfigLayer layer : layers) {
+            if (layer.file() != null) {
+                layerDirectories.add(layer.file().getParent());
+            }
+        }
+        if (layerDirectories.isEmpty()) {
+            return null;
+        }
+        WatchService service = FileSystems.getDefault().newWatchService();
+        try {
+            watchDirectories(service);
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+        Thread thread = new Thread(() -> awaitChanges(service), "args-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return service;
+    }
+
+    /**
+     * Watches every layer directory, or its nearest existing ancestor until it is created.
+     *
+     * @return whether a layer directory is watched that was not before
+     */
+    private boolean watchDirectories(WatchService service) throws IOException {
+        boolean layerDirectoryAdded = false;
+        for (Path directory : layerDirectories) {
+            Path existing = directory;
+            while (existing != null && !Files.isDirectory(existing)) {
+                existing = existing.getParent();
+            }
+            if (existing != null && !watchedDirectories.contains(existing)) {
+                existing.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                watchedDirectories.add(existing);
+                layerDirectoryAdded |= existing.equals(directory);
+            }
+        }
+        return layerDirectoryAdded;
+    }
+
+    private void awaitChanges(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                try {
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= event.kind() == OVERFLOW
+                                || isLayerFile(((Path) key.watchable()).resolve((Path) event.context()));
+                    }
+                    if (!key.reset()) {
+                        watchedDirectories.remove((Path) key.watchable());
+                    }
+                    changed |= watchDirectories(service);
+                    if (changed) {
+                        reloadKeepingLastMerge();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.log(WARNING, "Could not reload the configuration layers", e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean isLayerFile(Path path) {
+        for (ConfigLayer layer : layers) {
+            if (path.equals(layer.file())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reloadKeepingLastMerge() throws IOException {
+        try {
+            reload();
+        } catch (ArgsException e) {
+            // the previous merge stays in effect until the file converts again
+            logger.log(WARNING, "Keeping the previous configuration: " + e.errorMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package args.finalVersion.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A properties file keyed by argument name. It is read when created and on
+ * {@link #reload()}; a missing file is an empty layer.
+ */
+public final class PropertiesFileLayer implements ConfigLayer {
+    private final Path file;
+    private volatile Properties properties;
+
+    public PropertiesFileLayer(Path file) throws IOException {
+        this.file = file.toAbsolutePath().normalize();
+        reload();
+    }
+
+    @Override
+    public String valueOf(String name) {
+        return properties.getProperty(name);
+    }
+
+    @Override
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public void reload() throws IOException {
+        Properties loaded = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            loaded.load(reader);
+        } catch (NoSuchFileException e) {
+            // no file, no values
+        }
+        properties = loaded;
+    }
+}
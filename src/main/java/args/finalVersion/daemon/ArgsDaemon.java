@@ -0,0 +1,195 @@
+package args.finalVersion.daemon;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ReusableArgs;
+import args.finalVersion.daemon.RequestReader.LineTooLongException;
+import args.finalVersion.exception.ArgsException;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.MALFORMED_COMMAND_LINE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Keeps a compiled schema warm in one JVM and parses command lines sent by local
+ * clients, so each call costs a parse rather than a JVM start. The daemon listens on
+ * the loopback interface only; every request is one line in {@link args.finalVersion.CommandLine}
+ * syntax, and every reply is one line as described in {@link DaemonReplies}.
+ * <p>
+ * Clients may pipeline: replies come back in request order and are flushed whenever
+ * no further request is already buffered.
+ * <p>
+ * Any local process can connect, so the daemon guards itself against its clients:
+ * <ul>
+ * <li>schemas that read {@code @path} argument files are refused;</li>
+ * <li>at most {@code maxClients} connections are served at once, and further
+ * connections are closed as soon as they are accepted;</li>
+ * <li>a connection that sends nothing for {@code idleTimeoutMillis} is closed;</li>
+ * <li>a request longer than {@link #MAX_REQUEST_LENGTH} chars is answered with a
+ * {@code MALFORMED_COMMAND_LINE} error and the connection is closed;</li>
+ * <li>when accepting fails, e.g. because the process is out of file descriptors, the
+ * daemon waits up to a second before it tries again.</li>
+ * </ul>
+ */
+public final class ArgsDaemon implements Closeable {
+    public static final int DEFAULT_MAX_CLIENTS = 32;
+    public static final int DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+    public static final int MAX_REQUEST_LENGTH = 64 * 1024;
+    private static final int BACKLOG = 50;
+    private static final long IDLE_WORKER_SECONDS = 60;
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 10;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+    private final ArgsSchema schema;
+    private final ServerSocket serverSocket;
+    private final int idleTimeoutMillis;
+    private final ThreadPoolExecutor workers;
+    private final Thread acceptor;
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+
+    private ArgsDaemon(ArgsSchema schema, ServerSocket serverSocket, int maxClients, int idleTimeoutMillis) {
+        this.schema = schema;
+        this.serverSocket = serverSocket;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.workers = new ThreadPoolExecutor(0, maxClients, IDLE_WORKER_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> daemonThread(runnable, "args-daemon"));
+        this.acceptor = daemonThread(this::acceptClients, "args-daemon-acceptor");
+    }
+
+    /**
+     * Starts listening on {@code port} of the loopback interface; port 0 picks a free one.
+     */
+    public static ArgsDaemon start(ArgsSchema schema, int port) throws IOException {
+        return start(schema, port, DEFAULT_MAX_CLIENTS);
+    }
+
+    public static ArgsDaemon start(ArgsSchema schema, int port, int maxClients) throws IOException {
+        return start(schema, port, maxClients, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    public static ArgsDaemon start(ArgsSchema schema, int port, int maxClients, int idleTimeoutMillis)
+            throws IOException {
+        if (schema.expandsArgumentFiles()) {
+            throw new IllegalArgumentException("The daemon cannot serve a schema that reads @path argument files");
+        }
+        if (maxClients <= 0) {
+            throw new IllegalArgumentException("maxClients must be positive but was " + maxClients);
+        }
+        if (idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("idleTimeoutMillis must be positive but was " + idleTimeoutMillis);
+        }
+        ArgsDaemon daemon = new ArgsDaemon(schema,
+                new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress()), maxClients, idleTimeoutMillis);
+        daemon.acceptor.start();
+        return daemon;
+    }
+
+    private static Thread daemonThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket client : clients) {
+            client.close();
+        }
+        workers.shutdownNow();
+    }
+
+    private void acceptClients() {
+        long backoffMillis = 0;
+        while (!serverSocket.isClosed()) {
+            Socket client;
+            try {
+                client = serverSocket.accept();
+                backoffMillis = 0;
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                // e.g. out of file descriptors: give connections time to close instead of spinning
+                backoffMillis = Math.min(Math.max(2 * backoffMillis, MIN_ACCEPT_BACKOFF_MILLIS),
+                        MAX_ACCEPT_BACKOFF_MILLIS);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                continue;
+            }
+            dispatch(client);
+        }
+    }
+
+    private void dispatch(Socket client) {
+        try {
+            client.setSoTimeout(idleTimeoutMillis);
+            clients.add(client);
+            workers.execute(() -> serve(client));
+        } catch (IOException | RejectedExecutionException e) {
+            clients.remove(client);
+            closeQuietly(client);
+        }
+    }
+
+    private void serve(Socket client) {
+        try (Socket connection = client;
+             Writer replies = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), UTF_8))) {
+            RequestReader requests = new RequestReader(
+                    new InputStreamReader(connection.getInputStream(), UTF_8), MAX_REQUEST_LENGTH);
+            ReusableArgs args = new ReusableArgs(schema);
+            StringBuilder reply = new StringBuilder();
+            try {
+                for (String request = requests.readLine(); request != null; request = requests.readLine()) {
+                    reply.setLength(0);
+                    answer(request, args, reply);
+                    replies.append(reply).append('\n');
+                    if (!requests.ready()) {
+                        replies.flush();
+                    }
+                }
+            } catch (LineTooLongException e) {
+                reply.setLength(0);
+                DaemonReplies.appendError(reply, new ArgsException(MALFORMED_COMMAND_LINE, e.getMessage()));
+                replies.append(reply).append('\n');
+            }
+        } catch (IOException e) {
+            // the client went away or stayed idle too long
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    private static void closeQuietly(Socket client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            // nothing left to release
+        }
+    }
+
+    private void answer(String request, ReusableArgs args, StringBuilder reply) {
+        try {
+            args.parse(request);
+            DaemonReplies.appendParsed(reply, schema, args);
+        } catch (ArgsException e) {
+            DaemonReplies.appendError(reply, e);
+        }
+    }
+}
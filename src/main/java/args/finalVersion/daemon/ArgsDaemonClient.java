@@ -0,0 +1,57 @@
+package args.finalVersion.daemon;
+
+import args.finalVersion.CommandLine;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Connection to an {@link ArgsDaemon}. {@link #parse} is one round trip; {@link #send}
+ * and {@link #receive} let a caller pipeline many requests before reading the replies.
+ */
+public final class ArgsDaemonClient implements Closeable {
+    private final Socket socket;
+    private final BufferedReader replies;
+    private final Writer requests;
+
+    public ArgsDaemonClient(int port) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        replies = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+        requests = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), UTF_8));
+    }
+
+    public String parse(String... argv) throws IOException {
+        send(argv);
+        flush();
+        return receive();
+    }
+
+    /**
+     * Queues one argument vector; arguments may contain anything but line breaks,
+     * which {@link CommandLine#join} refuses.
+     */
+    public void send(String... argv) throws IOException {
+        requests.write(CommandLine.join(argv));
+        requests.write('\n');
+    }
+
+    public void flush() throws IOException {
+        requests.flush();
+    }
+
+    public String receive() throws IOException {
+        String reply = replies.readLine();
+        if (reply == null) {
+            throw new EOFException("The daemon closed the connection.");
+        }
+        return reply;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,116 @@
+package args.finalVersion.daemon;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ReusableArgs;
+import args.finalVersion.exception.ArgsException;
+
+import java.util.List;
+
+/**
+ * Renders one reply line of the daemon protocol:
+ * {@code OK<TAB>nextArgument<TAB>-x=value...} for every argument found, or
+ * {@code ERROR<TAB>code<TAB>message}. List values are comma-separated; backslash,
+ * tab, line breaks and commas inside values are backslash-escaped.
+ */
+final class DaemonReplies {
+    static final String OK = "OK";
+    static final String ERROR = "ERROR";
+
+    private DaemonReplies() {
+    }
+
+    static void appendParsed(StringBuilder reply, ArgsSchema schema, ReusableArgs args) {
+        reply.append(OK).append('\t').append(args.nextArgument());
+        String ids = schema.argumentIds();
+        for (int i = 0; i < ids.length(); i++) {
+            char id = ids.charAt(i);
+            if (args.has(id)) {
+                reply.append("\t-").append(id).append('=');
+                appendValue(reply, schema.typeOf(id), args, id);
+            }
+        }
+    }
+
+    static void appendError(StringBuilder reply, ArgsException e) {
+        reply.append(ERROR).append('\t').append(e.getErrorCode()).append('\t');
+        appendEscaped(reply, e.errorMessage());
+    }
+
+    private static void appendValue(StringBuilder reply, String type, ReusableArgs args, char id) {
+        switch (type) {
+            case "":
+                reply.append(args.getBoolean(id));
+                break;
+            case "#":
+                reply.append(args.getInt(id));
+                break;
+            case "##":
+                reply.append(args.getDouble(id));
+                break;
+            case "*":
+                appendEscaped(reply, args.getString(id));
+                break;
+            case "[*]":
+                appendStrings(reply, args.getStringList(id));
+                break;
+            case "[#]":
+                appendInts(reply, args.getIntArray(id));
+                break;
+            case "[#L]":
+                appendLongs(reply, args.getLongArray(id));
+                break;
+            default:
+                appendDoubles(reply, args.getDoubleArray(id));
+                break;
+        }
+    }
+
+    private static void appendStrings(StringBuilder reply, List<String> values) {
+        for (int i = 0; i < values.size(); i++) {
+            appendEscaped(reply.append(i == 0 ? "" : ","), values.get(i));
+        }
+    }
+
+    private static void appendInts(StringBuilder reply, int[] values) {
+        for (int i = 0; i < values.length; i++) {
+            reply.append(i == 0 ? "" : ",").append(values[i]);
+        }
+    }
+
+    private static void appendLongs(StringBuilder reply, long[] values) {
+        for (int i = 0; i < values.length; i++) {
+            reply.append(i == 0 ? "" : ",").append(values[i]);
+        }
+    }
+
+    private static void appendDoubles(StringBuilder reply, double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            reply.append(i == 0 ? "" : ",").append(values[i]);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder reply, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    reply.append("\\\\");
+                    break;
+                case '\t':
+                    reply.append("\\t");
+                    break;
+                case '\n':
+                    reply.append("\\n");
+                    break;
+                case '\r':
+                    reply.append("\\r");
+                    break;
+                case ',':
+                    reply.append("\\,");
+                    break;
+                default:
+                    reply.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package args.finalVersion.daemon;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the request lines of one connection. Unlike {@code BufferedReader.readLine()},
+ * it refuses a line longer than {@code maxLength} instead of buffering whatever a
+ * client sends.
+ */
+final class RequestReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader in;
+    private final int maxLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+
+    RequestReader(Reader in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * The next line without its {@code \n} or {@code \r\n}; {@code null} at the end of the input.
+     *
+     * @throws LineTooLongException once the line grows past {@code maxLength} chars
+     */
+    String readLine() throws IOException {
+        line.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                if (line.length() > maxLength) {
+                    throw new LineTooLongException(maxLength);
+                }
+                return line.length() == 0 ? null : line.toString();
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            line.append(buffer, start, position - start);
+            if (line.length() > maxLength + 1) {
+                throw new LineTooLongException(maxLength);
+            }
+            if (position < limit) {
+                position++;
+                int end = line.length();
+                if (end > 0 && line.charAt(end - 1) == '\r') {
+                    line.setLength(end - 1);
+                }
+                if (line.length() > maxLength) {
+                    throw new LineTooLongException(maxLength);
+                }
+                return line.toString();
+            }
+        }
+    }
+
+    /**
+     * Whether the next {@link #readLine} can start without blocking.
+     */
+    boolean ready() throws IOException {
+        return position < limit || in.ready();
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    static final class LineTooLongException extends IOException {
+        LineTooLongException(int maxLength) {
+            super("request longer than " + maxLength + " chars");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package args.finalVersion.exception;
+
+import args.finalVersion.exception.ArgsException.ErrorCode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every error found by one validation pass, stored as parallel arrays of
+ * code, argument id and parameter. Messages are only rendered when asked for.
+ */
+public final class ArgsErrors {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private ErrorCode[] codes = new ErrorCode[INITIAL_CAPACITY];
+    private char[] argumentIds = new char[INITIAL_CAPACITY];
+    private String[] parameters = new String[INITIAL_CAPACITY];
+    private int size;
+
+    public void add(ErrorCode errorCode, char errorArgumentId, String errorParameter) {
+        if (size == codes.length) {
+            grow();
+        }
+        codes[size] = errorCode;
+        argumentIds[size] = errorArgumentId;
+        parameters[size] = errorParameter;
+        size++;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ErrorCode errorCode(int index) {
+        checkIndex(index);
+        return codes[index];
+    }
+
+    public char errorArgumentId(int index) {
+        checkIndex(index);
+        return argumentIds[index];
+    }
+
+    public String errorParameter(int index) {
+        checkIndex(index);
+        return parameters[index];
+    }
+
+    public String errorMessage(int index) {
+        checkIndex(index);
+        return ArgsException.errorMessage(codes[index], argumentIds[index], parameters[index]);
+    }
+
+    public StringBuilder appendMessageTo(int index, StringBuilder out) {
+        checkIndex(index);
+        return ArgsException.appendMessageTo(out, codes[index], argumentIds[index], parameters[index]);
+    }
+
+    public List<String> errorMessages() {
+        List<String> messages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            messages.add(errorMessage(i));
+        }
+        return messages;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Error " + index + " of " + size);
+        }
+    }
+
+    private void grow() {
+        int capacity = codes.length * 2;
+        codes = Arrays.copyOf(codes, capacity);
+        argumentIds = Arrays.copyOf(argumentIds, capacity);
+        parameters = Arrays.copyOf(parameters, capacity);
+    }
+}
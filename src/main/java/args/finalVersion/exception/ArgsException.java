@@ -1,83 +1,247 @@
 package args.finalVersion.exception;
 
 
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 public class ArgsException extends Exception {
+    private static final int CACHED_ARGUMENT_ID_LIMIT = 128;
+    private static final AtomicReferenceArray<?>[] cached = new AtomicReferenceArray<?>[ErrorCode.values().length];
+    private static volatile boolean caching = false;
+
+    static {
+        for (int code = 0; code < cached.length; code++) {
+            cached[code] = new AtomicReferenceArray<ArgsException>(CACHED_ARGUMENT_ID_LIMIT);
+        }
+    }
+
     private char errorArgumentId = '\0';
     private String errorParameter = null;
     private ErrorCode errorCode = ErrorCode.OK;
+    private final boolean shared;
 
     public ArgsException() {
+        shared = false;
     }
 
     public ArgsException(String message) {
         super(message);
+        shared = false;
     }
 
     public ArgsException(ErrorCode errorCode) {
         this.errorCode = errorCode;
+        shared = false;
     }
 
     public ArgsException(ErrorCode errorCode, String errorParameter) {
         this.errorCode = errorCode;
         this.errorParameter = errorParameter;
+        shared = false;
     }
 
     public ArgsException(ErrorCode errorCode, char errorArgumentId, String errorParameter) {
         this.errorCode = errorCode;
         this.errorParameter = errorParameter;
         this.errorArgumentId = errorArgumentId;
+        shared = false;
+    }
+
+    private ArgsException(ErrorCode errorCode, char errorArgumentId, String errorParameter, boolean shared) {
+        super(null, null, false, false);
+        this.errorCode = errorCode;
+        this.errorArgumentId = errorArgumentId;
+        this.errorParameter = errorParameter;
+        this.shared = shared;
+    }
+
+    /**
+     * Marshalers report bad input through stackless exceptions: validation mode
+     * catches them as control flow, so filling in a stack trace would be wasted work.
+     */
+    public static ArgsException stackless(ErrorCode errorCode, String errorParameter) {
+        return new ArgsException(errorCode, '\0', errorParameter, false);
+    }
+
+    /**
+     * Whether {@link #cached} hands out shared instances; off by default. Turning it on
+     * suits callers that reject a lot of input and never change or inspect the stack
+     * trace of what they catch: rejecting {@code -x} then allocates nothing once its
+     * instance exists. It applies to the whole process.
+     */
+    public static void setCaching(boolean enabled) {
+        caching = enabled;
+    }
+
+    public static boolean isCaching() {
+        return caching;
+    }
+
+    /**
+     * The error for a message that takes no parameter, e.g. {@code UNEXPECTED_ARGUMENT}
+     * for {@code -x}. While {@linkplain #setCaching caching} is on this is a shared,
+     * stackless and immutable instance; otherwise it is a new exception like any other.
+     */
+    public static ArgsException cached(ErrorCode errorCode, char errorArgumentId) {
+        if (errorCode.template.usesParameter()) {
+            throw new IllegalArgumentException(errorCode + " messages take a parameter");
+        }
+        if (!caching) {
+            return new ArgsException(errorCode, errorArgumentId, null);
+        }
+        if (errorArgumentId >= CACHED_ARGUMENT_ID_LIMIT) {
+            return new ArgsException(errorCode, errorArgumentId, null, false);
+        }
+        @SuppressWarnings("unchecked")
+        AtomicReferenceArray<ArgsException> byArgumentId = (AtomicReferenceArray<ArgsException>) cached[errorCode.ordinal()];
+        ArgsException exception = byArgumentId.get(errorArgumentId);
+        if (exception == null) {
+            byArgumentId.compareAndSet(errorArgumentId, null, new ArgsException(errorCode, errorArgumentId, null, true));
+            exception = byArgumentId.get(errorArgumentId);
+        }
+        return exception;
     }
 
     public char getErrorArgumentId() {
         return errorArgumentId;
     }
 
+    /**
+     * Throws {@code UnsupportedOperationException} on a shared instance, which only
+     * exists once {@link #setCaching caching} is on; {@link #withErrorArgumentId} works on both.
+     */
     public void setErrorArgumentId(char errorArgumentId) {
+        checkNotShared();
+        this.errorArgumentId = errorArgumentId;
+    }
+
+    /**
+     * This error attributed to {@code errorArgumentId}: a shared instance is swapped
+     * for the cached one of that argument, any other is updated in place.
+     */
+    public ArgsException withErrorArgumentId(char errorArgumentId) {
+        if (shared) {
+            return cached(errorCode, errorArgumentId);
+        }
         this.errorArgumentId = errorArgumentId;
+        return this;
     }
 
     public String getErrorParameter() {
         return errorParameter;
     }
 
+    /**
+     * Throws {@code UnsupportedOperationException} on a shared instance, which only
+     * exists once {@link #setCaching caching} is on; {@link #withErrorParameter} works on both.
+     */
     public void setErrorParameter(String errorParameter) {
+        checkNotShared();
         this.errorParameter = errorParameter;
     }
 
+    /**
+     * This error with {@code errorParameter}: a shared instance is copied, any other is updated in place.
+     */
+    public ArgsException withErrorParameter(String errorParameter) {
+        if (shared) {
+            return new ArgsException(errorCode, errorArgumentId, errorParameter, false);
+        }
+        this.errorParameter = errorParameter;
+        return this;
+    }
+
     public ErrorCode getErrorCode() {
         return errorCode;
     }
 
+    /**
+     * Throws {@code UnsupportedOperationException} on a shared instance, which only
+     * exists once {@link #setCaching caching} is on; {@link #withErrorCode} works on both.
+     */
     public void setErrorCode(ErrorCode errorCode) {
+        checkNotShared();
         this.errorCode = errorCode;
     }
 
+    /**
+     * This error with {@code errorCode}: a shared instance is copied, any other is updated in place.
+     */
+    public ArgsException withErrorCode(ErrorCode errorCode) {
+        if (shared) {
+            return new ArgsException(errorCode, errorArgumentId, errorParameter, false);
+        }
+        this.errorCode = errorCode;
+        return this;
+    }
+
+    /**
+     * The explicit message if there is one, else the error message, rendered only when asked for.
+     */
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null || errorCode == ErrorCode.OK ? message : errorMessage();
+    }
+
     public String errorMessage() {
-        switch (errorCode) {
-            case OK:
-                return "TILT: Should not get here.";
-            case UNEXPECTED_ARGUMENT:
-                return String.format("Argument -%c unexpected.", errorArgumentId);
-            case MISSING_STRING:
-                return String.format("Could not find string parameter for -%c.", errorArgumentId);
-            case INVALID_INTEGER:
-                return String.format("Argument -%c expects an integer but was '%s'.", errorArgumentId, errorParameter);
-            case MISSING_INTEGER:
-                return String.format("Could not find integer parameter for -%c.", errorArgumentId);
-            case INVALID_DOUBLE:
-                return String.format("Argument -%c expects a double but was '%s'.", errorArgumentId, errorParameter);
-            case MISSING_DOUBLE:
-                return String.format("Could not find double parameter for -%c.", errorArgumentId);
-            case INVALID_ARGUMENT_NAME:
-                return String.format("'%c' is not a valid argument name.", errorArgumentId);
-            case INVALID_ARGUMENT_FORMAT:
-                return String.format("'%s' is not a valid argument format.", errorParameter);
-            default:
-                return "";
+        return errorMessage(errorCode, errorArgumentId, errorParameter);
+    }
+
+    public StringBuilder appendMessageTo(StringBuilder out) {
+        return appendMessageTo(out, errorCode, errorArgumentId, errorParameter);
+    }
+
+    public <A extends Appendable> A appendMessageTo(A out) throws IOException {
+        errorCode.template.appendTo(out, errorArgumentId, errorParameter);
+        return out;
+    }
+
+    public static String errorMessage(ErrorCode errorCode, char errorArgumentId, String errorParameter) {
+        return appendMessageTo(new StringBuilder(64), errorCode, errorArgumentId, errorParameter).toString();
+    }
+
+    public static StringBuilder appendMessageTo(StringBuilder out, ErrorCode errorCode, char errorArgumentId,
+                                                String errorParameter) {
+        try {
+            errorCode.template.appendTo(out, errorArgumentId, errorParameter);
+        } catch (IOException e) {
+            throw new AssertionError("a StringBuilder does not throw", e);
+        }
+        return out;
+    }
+
+    private void checkNotShared() {
+        if (shared) {
+            throw new UnsupportedOperationException(
+                    "Cached ArgsException instances are shared and cannot change; use the with... methods");
         }
     }
 
     public enum ErrorCode {
-        OK, INVALID_ARGUMENT_FORMAT, UNEXPECTED_ARGUMENT, INVALID_ARGUMENT_NAME, MISSING_STRING, MISSING_INTEGER, MISSING_DOUBLE, INVALID_DOUBLE, INVALID_INTEGER
+        OK("TILT: Should not get here."),
+        INVALID_ARGUMENT_FORMAT("'{param}' is not a valid argument format."),
+        UNEXPECTED_ARGUMENT("Argument -{id} unexpected."),
+        INVALID_ARGUMENT_NAME("'{id}' is not a valid argument name."),
+        MISSING_STRING("Could not find string parameter for -{id}."),
+        MISSING_INTEGER("Could not find integer parameter for -{id}."),
+        MISSING_DOUBLE("Could not find double parameter for -{id}."),
+        INVALID_DOUBLE("Argument -{id} expects a double but was '{param}'."),
+        INVALID_INTEGER("Argument -{id} expects an integer but was '{param}'."),
+        INVALID_ARGUMENT_FILE("Could not read argument file '{param}' for -{id}."),
+        MALFORMED_COMMAND_LINE("Malformed command line: {param}."),
+        UNEXPECTED_LONG_ARGUMENT("Argument --{param} unexpected."),
+        AMBIGUOUS_ARGUMENT("Argument --{param} is ambiguous."),
+        UNEXPECTED_VALUE("Argument -{id} takes no value but was given '{param}'."),
+        MISSING_COMMAND("Could not find a command."),
+        UNEXPECTED_COMMAND("Command '{param}' unexpected."),
+        AMBIGUOUS_COMMAND("Command '{param}' is ambiguous."),
+        INVALID_BOOLEAN("Argument -{id} expects true or false but was '{param}'.");
+
+        private final MessageTemplate template;
+
+        ErrorCode(String template) {
+            this.template = new MessageTemplate(template);
+        }
     }
 }
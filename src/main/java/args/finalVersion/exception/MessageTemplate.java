@@ -0,0 +1,59 @@
+package args.finalVersion.exception;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An error message split once, when its {@link ArgsException.ErrorCode} is loaded, into
+ * literal text and {@code {id}} / {@code {param}} holes, so rendering is plain appends.
+ */
+final class MessageTemplate {
+    private static final String ID = "{id}";
+    private static final String PARAMETER = "{param}";
+
+    private final String[] literals;
+    private final boolean[] parameterHoles;
+    private final boolean usesParameter;
+
+    MessageTemplate(String template) {
+        List<String> literalList = new ArrayList<>();
+        List<Boolean> holeList = new ArrayList<>();
+        int start = 0;
+        for (int hole = nextHole(template, start); hole >= 0; hole = nextHole(template, start)) {
+            boolean parameter = template.startsWith(PARAMETER, hole);
+            literalList.add(template.substring(start, hole));
+            holeList.add(parameter);
+            start = hole + (parameter ? PARAMETER : ID).length();
+        }
+        literalList.add(template.substring(start));
+        literals = literalList.toArray(new String[0]);
+        parameterHoles = new boolean[holeList.size()];
+        for (int i = 0; i < parameterHoles.length; i++) {
+            parameterHoles[i] = holeList.get(i);
+        }
+        usesParameter = holeList.contains(true);
+    }
+
+    boolean usesParameter() {
+        return usesParameter;
+    }
+
+    void appendTo(Appendable out, char argumentId, String parameter) throws IOException {
+        for (int i = 0; i < parameterHoles.length; i++) {
+            out.append(literals[i]);
+            if (parameterHoles[i]) {
+                out.append(parameter);
+            } else {
+                out.append(argumentId);
+            }
+        }
+        out.append(literals[parameterHoles.length]);
+    }
+
+    private static int nextHole(String template, int from) {
+        int id = template.indexOf(ID, from);
+        int parameter = template.indexOf(PARAMETER, from);
+        return id < 0 ? parameter : parameter < 0 ? id : Math.min(id, parameter);
+    }
+}
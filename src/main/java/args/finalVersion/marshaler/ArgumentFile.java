@@ -0,0 +1,89 @@
+package args.finalVersion.marshaler;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * A memory-mapped {@code @file} argument list with one token per line. Opening the file
+ * only records where each line starts and ends; a token becomes a {@code String} when
+ * it is read. Blank lines are skipped and a trailing carriage return is dropped.
+ */
+public final class ArgumentFile extends AbstractList<String> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final MappedByteBuffer contents;
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private ArgumentFile(MappedByteBuffer contents) {
+        this.contents = contents;
+        indexLines();
+    }
+
+    public static ArgumentFile map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Argument file " + path + " is larger than 2GB.");
+            }
+            return new ArgumentFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Token " + index + " of " + size);
+        }
+        byte[] token = new byte[ends[index] - starts[index]];
+        // a duplicate, so that tokens can be read from several threads at once
+        contents.duplicate().position(starts[index]).get(token);
+        return new String(token, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+        return new TokenSpliterator(this, 0, size);
+    }
+
+    private void indexLines() {
+        int limit = contents.limit();
+        int lineStart = 0;
+        for (int i = 0; i < limit; i++) {
+            if (contents.get(i) == '\n') {
+                addLine(lineStart, i);
+                lineStart = i + 1;
+            }
+        }
+        addLine(lineStart, limit);
+    }
+
+    private void addLine(int start, int end) {
+        if (end > start && contents.get(end - 1) == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return;
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+}
@@ -4,6 +4,10 @@ import args.finalVersion.exception.ArgsException;
 
 import java.util.Iterator;
 
+/**
+ * Marshalers are stateless converters shared by every parse of a schema;
+ * converted values are written to the {@link ArgumentValues} of the current parse.
+ */
 public interface ArgumentMarshaler {
-    void set(Iterator<String> currentArgument) throws ArgsException;
+    void set(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException;
 }
@@ -0,0 +1,152 @@
+package args.finalVersion.marshaler;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Slot-indexed storage for one parse. Booleans, ints and doubles live unboxed
+ * in {@code primitives}; strings and arrays in {@code references}. A string may be
+ * held as a range of a larger text and is only turned into a {@code String} when read.
+ */
+public final class ArgumentValues {
+    private static final String[] NO_STRINGS = new String[0];
+    private static final PrimitiveList EMPTY_LIST = new PrimitiveList();
+
+    private final long[] primitives;
+    private final Object[] references;
+    private final NumberParser numberParser = new NumberParser();
+    private long deferred;
+    private long slices;
+    private volatile long converted;
+
+    public ArgumentValues(int slotCount) {
+        primitives = new long[slotCount];
+        references = new Object[slotCount];
+    }
+
+    /**
+     * Empties every slot for the next parse, keeping numeric lists' storage.
+     */
+    public void clear() {
+        Arrays.fill(primitives, 0);
+        for (int slot = 0; slot < references.length; slot++) {
+            if (references[slot] instanceof PrimitiveList) {
+                ((PrimitiveList) references[slot]).clear();
+            } else {
+                references[slot] = null;
+            }
+        }
+        deferred = 0;
+        slices = 0;
+        converted = 0;
+    }
+
+    /**
+     * Copies the slots in {@code slotMask} from {@code source}; lists are shared, not copied.
+     */
+    public void copyFrom(ArgumentValues source, long slotMask) {
+        for (long mask = slotMask; mask != 0; mask &= mask - 1) {
+            int slot = Long.numberOfTrailingZeros(mask);
+            primitives[slot] = source.primitives[slot];
+            references[slot] = source.references[slot];
+        }
+    }
+
+    public NumberParser numberParser() {
+        return numberParser;
+    }
+
+    public void setDeferred(int slot, String parameter) {
+        references[slot] = parameter;
+        deferred |= 1L << slot;
+    }
+
+    public boolean isDeferred(int slot) {
+        long bit = 1L << slot;
+        return (deferred & bit) != 0 && (converted & bit) == 0;
+    }
+
+    public String deferredParameter(int slot) {
+        return (String) references[slot];
+    }
+
+    public void markConverted(int slot) {
+        converted |= 1L << slot;
+    }
+
+    public void setBoolean(int slot, boolean value) {
+        primitives[slot] = value ? 1 : 0;
+    }
+
+    public void setInt(int slot, int value) {
+        primitives[slot] = value;
+    }
+
+    public void setDouble(int slot, double value) {
+        primitives[slot] = Double.doubleToRawLongBits(value);
+    }
+
+    public void setString(int slot, String value) {
+        references[slot] = value;
+        slices &= ~(1L << slot);
+    }
+
+    public void setSlice(int slot, CharSequence text, int start, int end) {
+        references[slot] = text;
+        primitives[slot] = (long) start << 32 | end;
+        slices |= 1L << slot;
+    }
+
+    public void setStringList(int slot, List<String> value) {
+        references[slot] = value;
+    }
+
+    public PrimitiveList primitiveList(int slot) {
+        if (references[slot] == null) {
+            references[slot] = new PrimitiveList();
+        }
+        return (PrimitiveList) references[slot];
+    }
+
+    public boolean getBoolean(int slot) {
+        return primitives[slot] != 0;
+    }
+
+    public int getInt(int slot) {
+        return (int) primitives[slot];
+    }
+
+    public double getDouble(int slot) {
+        return Double.longBitsToDouble(primitives[slot]);
+    }
+
+    public String getString(int slot) {
+        if ((slices & 1L << slot) != 0) {
+            materializeSlice(slot);
+        }
+        String value = (String) references[slot];
+        return value == null ? "" : value;
+    }
+
+    private void materializeSlice(int slot) {
+        int start = (int) (primitives[slot] >>> 32);
+        int end = (int) primitives[slot];
+        setString(slot, ((CharSequence) references[slot]).subSequence(start, end).toString());
+    }
+
+    public String[] getStringArray(int slot) {
+        return getStringList(slot).toArray(NO_STRINGS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getStringList(int slot) {
+        List<String> value = (List<String>) references[slot];
+        return value == null ? Collections.emptyList() : value;
+    }
+
+    public PrimitiveList getPrimitiveList(int slot) {
+        PrimitiveList value = (PrimitiveList) references[slot];
+        return value == null ? EMPTY_LIST : value;
+    }
+}
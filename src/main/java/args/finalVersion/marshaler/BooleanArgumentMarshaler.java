@@ -5,15 +5,14 @@ import args.finalVersion.exception.ArgsException;
 import java.util.Iterator;
 
 public class BooleanArgumentMarshaler implements ArgumentMarshaler {
-    private boolean booleanValue = false;
 
-    public void set(Iterator<String> currentArgument) throws ArgsException {
-        booleanValue = true;
+    public void set(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException {
+        values.setBoolean(slot, true);
     }
 
-    public static boolean getValue(ArgumentMarshaler am) {
+    public static boolean getValue(ArgumentMarshaler am, ArgumentValues values, int slot) {
         if (am instanceof BooleanArgumentMarshaler) {
-            return ((BooleanArgumentMarshaler) am).booleanValue;
+            return values.getBoolean(slot);
         } else {
             return false;
         }
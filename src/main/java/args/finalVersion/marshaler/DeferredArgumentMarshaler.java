@@ -0,0 +1,15 @@
+package args.finalVersion.marshaler;
+
+import args.finalVersion.exception.ArgsException;
+
+import java.util.Iterator;
+
+/**
+ * A marshaler whose conversion can be postponed: {@link #defer} only claims the
+ * parameter token, and {@link #convert} turns it into a value when it is first read.
+ */
+public interface DeferredArgumentMarshaler extends ArgumentMarshaler {
+    void defer(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException;
+
+    void convert(String parameter, ArgumentValues values, int slot) throws ArgsException;
+}
@@ -6,27 +6,42 @@ import java.util.Iterator;
 
 import static args.finalVersion.exception.ArgsException.ErrorCode.*;
 
-public class DoubleArgumentMarshaler implements ArgumentMarshaler {
-    private double value = 0;
+public class DoubleArgumentMarshaler implements DeferredArgumentMarshaler, SliceArgumentMarshaler {
 
+    @Override
+    public void set(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException {
+        convert(nextParameter(currentArgument), values, slot);
+    }
 
     @Override
-    public void set(Iterator<String> currentArgument) throws ArgsException {
-        if (currentArgument.hasNext()) {
-            String parameter = currentArgument.next();
-            try {
-                value = Double.parseDouble(parameter);
-            } catch (NumberFormatException e) {
-                throw new ArgsException(INVALID_DOUBLE, "Expected a double but got: " + parameter);
-            }
-        } else {
-            throw new ArgsException(MISSING_DOUBLE, "Missing double parameter.");
+    public void defer(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException {
+        values.setDeferred(slot, nextParameter(currentArgument));
+    }
+
+    @Override
+    public void convert(String parameter, ArgumentValues values, int slot) throws ArgsException {
+        setSlice(parameter, 0, parameter.length(), values, slot);
+    }
+
+    @Override
+    public void setSlice(CharSequence text, int start, int end, ArgumentValues values, int slot) throws ArgsException {
+        NumberParser parser = values.numberParser();
+        if (parser.parseDouble(text, start, end) != NumberParser.OK) {
+            throw ArgsException.stackless(INVALID_DOUBLE, text.subSequence(start, end).toString());
+        }
+        values.setDouble(slot, parser.doubleValue());
+    }
+
+    private static String nextParameter(Iterator<String> currentArgument) throws ArgsException {
+        if (!currentArgument.hasNext()) {
+            throw ArgsException.cached(MISSING_DOUBLE, '\0');
         }
+        return currentArgument.next();
     }
 
-    public static double getValue(ArgumentMarshaler am) {
+    public static double getValue(ArgumentMarshaler am, ArgumentValues values, int slot) {
         if (am instanceof DoubleArgumentMarshaler) {
-            return ((DoubleArgumentMarshaler) am).value;
+            return values.getDouble(slot);
         } else {
             return 0.0;
         }
@@ -0,0 +1,28 @@
+package args.finalVersion.marshaler;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.INVALID_DOUBLE;
+import static args.finalVersion.exception.ArgsException.ErrorCode.MISSING_DOUBLE;
+
+public class DoubleArrayArgumentMarshaler extends NumberListArgumentMarshaler {
+
+    public DoubleArrayArgumentMarshaler() {
+        super(MISSING_DOUBLE, INVALID_DOUBLE);
+    }
+
+    @Override
+    boolean addElement(NumberParser parser, String parameter, int start, int end, PrimitiveList list) {
+        if (parser.parseDouble(parameter, start, end) != NumberParser.OK) {
+            return false;
+        }
+        list.addDouble(parser.doubleValue());
+        return true;
+    }
+
+    public static double[] getValue(ArgumentMarshaler am, ArgumentValues values, int slot) {
+        if (am instanceof DoubleArrayArgumentMarshaler) {
+            return values.getPrimitiveList(slot).toDoubleArray();
+        } else {
+            return new double[0];
+        }
+    }
+}
@@ -3,28 +3,41 @@ package args.finalVersion.marshaler;
 import args.finalVersion.exception.ArgsException;
 
 import java.util.Iterator;
-import java.util.NoSuchElementException;
 
 import static args.finalVersion.exception.ArgsException.ErrorCode.*;
 
-public class IntegerArgumentMarshaler implements ArgumentMarshaler {
-    private int intValue = 0;
-
-    public void set(Iterator<String> currentArgument) throws ArgsException {
-        String parameter = null;
-        try {
-            parameter = currentArgument.next();
-            intValue = Integer.parseInt(parameter);
-        } catch (NoSuchElementException e) {
-            throw new ArgsException(MISSING_INTEGER);
-        } catch (NumberFormatException e) {
-            throw new ArgsException(INVALID_INTEGER, parameter);
+public class IntegerArgumentMarshaler implements DeferredArgumentMarshaler, SliceArgumentMarshaler {
+
+    public void set(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException {
+        convert(nextParameter(currentArgument), values, slot);
+    }
+
+    public void defer(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException {
+        values.setDeferred(slot, nextParameter(currentArgument));
+    }
+
+    public void convert(String parameter, ArgumentValues values, int slot) throws ArgsException {
+        setSlice(parameter, 0, parameter.length(), values, slot);
+    }
+
+    public void setSlice(CharSequence text, int start, int end, ArgumentValues values, int slot) throws ArgsException {
+        NumberParser parser = values.numberParser();
+        if (parser.parseLong(text, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE) != NumberParser.OK) {
+            throw ArgsException.stackless(INVALID_INTEGER, text.subSequence(start, end).toString());
+        }
+        values.setInt(slot, parser.intValue());
+    }
+
+    private static String nextParameter(Iterator<String> currentArgument) throws ArgsException {
+        if (!currentArgument.hasNext()) {
+            throw ArgsException.cached(MISSING_INTEGER, '\0');
         }
+        return currentArgument.next();
     }
 
-    public static int getValue(ArgumentMarshaler am) {
+    public static int getValue(ArgumentMarshaler am, ArgumentValues values, int slot) {
         if (am instanceof IntegerArgumentMarshaler) {
-            return ((IntegerArgumentMarshaler) am).intValue;
+            return values.getInt(slot);
         } else {
             return 0;
         }
@@ -0,0 +1,28 @@
+package args.finalVersion.marshaler;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.INVALID_INTEGER;
+import static args.finalVersion.exception.ArgsException.ErrorCode.MISSING_INTEGER;
+
+public class IntegerArrayArgumentMarshaler extends NumberListArgumentMarshaler {
+
+    public IntegerArrayArgumentMarshaler() {
+        super(MISSING_INTEGER, INVALID_INTEGER);
+    }
+
+    @Override
+    boolean addElement(NumberParser parser, String parameter, int start, int end, PrimitiveList list) {
+        if (parser.parseLong(parameter, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE) != NumberParser.OK) {
+            return false;
+        }
+        list.add(parser.intValue());
+        return true;
+    }
+
+    public static int[] getValue(ArgumentMarshaler am, ArgumentValues values, int slot) {
+        if (am instanceof IntegerArrayArgumentMarshaler) {
+            return values.getPrimitiveList(slot).toIntArray();
+        } else {
+            return new int[0];
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package args.finalVersion.marshaler;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.INVALID_INTEGER;
+import static args.finalVersion.exception.ArgsException.ErrorCode.MISSING_INTEGER;
+
+public class LongArrayArgumentMarshaler extends NumberListArgumentMarshaler {
+
+    public LongArrayArgumentMarshaler() {
+        super(MISSING_INTEGER, INVALID_INTEGER);
+    }
+
+    @Override
+    boolean addElement(NumberParser parser, String parameter, int start, int end, PrimitiveList list) {
+        if (parser.parseLong(parameter, start, end, Long.MIN_VALUE, Long.MAX_VALUE) != NumberParser.OK) {
+            return false;
+        }
+        list.add(parser.longValue());
+        return true;
+    }
+
+    public static long[] getValue(ArgumentMarshaler am, ArgumentValues values, int slot) {
+        if (am instanceof LongArrayArgumentMarshaler) {
+            return values.getPrimitiveList(slot).toLongArray();
+        } else {
+            return new long[0];
+        }
+    }
+}
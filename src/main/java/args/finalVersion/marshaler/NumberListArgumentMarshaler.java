@@ -0,0 +1,44 @@
+package args.finalVersion.marshaler;
+
+import args.finalVersion.exception.ArgsException;
+import args.finalVersion.exception.ArgsException.ErrorCode;
+
+import java.util.Iterator;
+
+/**
+ * Common parsing for the numeric list arguments: every occurrence of the flag takes one
+ * comma-separated token, and its elements are appended to the slot's {@link PrimitiveList}.
+ */
+abstract class NumberListArgumentMarshaler implements ArgumentMarshaler {
+    private final ErrorCode missingCode;
+    private final ErrorCode invalidCode;
+
+    NumberListArgumentMarshaler(ErrorCode missingCode, ErrorCode invalidCode) {
+        this.missingCode = missingCode;
+        this.invalidCode = invalidCode;
+    }
+
+    @Override
+    public void set(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException {
+        if (!currentArgument.hasNext()) {
+            throw ArgsException.cached(missingCode, '\0');
+        }
+        String parameter = currentArgument.next();
+        PrimitiveList list = values.primitiveList(slot);
+        NumberParser parser = values.numberParser();
+        int start = 0;
+        for (int end = nextComma(parameter, start); start <= parameter.length(); end = nextComma(parameter, start)) {
+            if (!addElement(parser, parameter, start, end, list)) {
+                throw ArgsException.stackless(invalidCode, parameter.substring(start, end));
+            }
+            start = end + 1;
+        }
+    }
+
+    abstract boolean addElement(NumberParser parser, String parameter, int start, int end, PrimitiveList list);
+
+    private static int nextComma(String parameter, int from) {
+        int comma = parameter.indexOf(',', from);
+        return comma < 0 ? parameter.length() : comma;
+    }
+}
@@ -0,0 +1,366 @@
+package args.finalVersion.marshaler;
+
+/**
+ * Parses numbers from a {@link CharSequence} without throwing: every parse returns a
+ * status code and leaves the value in this parser. One instance is reused for every
+ * token of a parse, so the success path allocates nothing.
+ * <p>
+ * Every input that {@link Integer#parseInt}, {@link Long#parseLong} or
+ * {@link Double#parseDouble} accepts is accepted with the same value. On top of that:
+ * <ul>
+ * <li>integers accept a {@code 0x}, {@code 0o} or {@code 0b} radix prefix, underscores
+ * between digits and a binary size suffix ({@code k}, {@code m}, {@code g}, {@code t}),
+ * e.g. {@code 64k} or {@code 0x1_0000}; a leading zero alone still means decimal, so
+ * {@code 010} is ten;</li>
+ * <li>decimal doubles accept underscores between digits.</li>
+ * </ul>
+ * As with {@code Double.parseDouble}, doubles may be surrounded by whitespace and a
+ * double too large for its type is infinite rather than out of range. Hexadecimal
+ * doubles such as {@code 0x1p3} are rare enough to be handed to {@code Double.parseDouble}.
+ */
+public final class NumberParser {
+    public static final int OK = 0;
+    public static final int EMPTY = 1;
+    public static final int MALFORMED = 2;
+    public static final int OUT_OF_RANGE = 3;
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final int MAX_EXPONENT_DIGITS_VALUE = 100_000;
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private long longValue;
+    private double doubleValue;
+    private CharSequence text;
+    private int position;
+    private int end;
+
+    public long longValue() {
+        return longValue;
+    }
+
+    public int intValue() {
+        return (int) longValue;
+    }
+
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    public int parseInt(CharSequence text) {
+        return parseLong(text, 0, text.length(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public int parseLong(CharSequence text, long min, long max) {
+        return parseLong(text, 0, text.length(), min, max);
+    }
+
+    public int parseLong(CharSequence text, int start, int end, long min, long max) {
+        if (start == end) {
+            return EMPTY;
+        }
+        start(text, start, end);
+        boolean negative = parseSign();
+        int radix = parseRadixPrefix();
+        int status = parseNegatedDigits(radix);
+        if (status == OK) {
+            status = applySizeSuffix();
+        }
+        if (status == OK) {
+            status = applySign(negative, min, max);
+        }
+        this.text = null;
+        return status;
+    }
+
+    public int parseDouble(CharSequence text) {
+        return parseDouble(text, 0, text.length());
+    }
+
+    public int parseDouble(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return EMPTY;
+        }
+        start(text, start, end);
+        boolean negative = parseSign();
+        int status = isHexadecimal() ? parseHexadecimalDouble() : parseDecimal();
+        if (status == OK) {
+            doubleValue = negative ? -doubleValue : doubleValue;
+        }
+        this.text = null;
+        return status;
+    }
+
+    private void start(CharSequence text, int start, int end) {
+        this.text = text;
+        this.position = start;
+        this.end = end;
+        longValue = 0;
+        doubleValue = 0;
+    }
+
+    private boolean parseSign() {
+        char c = text.charAt(position);
+        if (c == '-' || c == '+') {
+            position++;
+            return c == '-';
+        }
+        return false;
+    }
+
+    private int parseRadixPrefix() {
+        if (position + 1 < end && text.charAt(position) == '0') {
+            switch (text.charAt(position + 1)) {
+                case 'x':
+                case 'X':
+                    position += 2;
+                    return 16;
+                case 'o':
+                case 'O':
+                    position += 2;
+                    return 8;
+                case 'b':
+                case 'B':
+                    position += 2;
+                    return 2;
+                default:
+                    return 10;
+            }
+        }
+        return 10;
+    }
+
+    private boolean isHexadecimal() {
+        return position + 1 < end && text.charAt(position) == '0' && (text.charAt(position + 1) | 0x20) == 'x';
+    }
+
+    private int parseHexadecimalDouble() {
+        try {
+            doubleValue = Double.parseDouble(text.subSequence(position, end).toString());
+            return OK;
+        } catch (NumberFormatException e) {
+            return MALFORMED;
+        }
+    }
+
+    private int parseNegatedDigits(int radix) {
+        long limit = Long.MIN_VALUE / radix;
+        long result = 0;
+        boolean digitSeen = false;
+        boolean afterUnderscore = false;
+        for (; position < end; position++) {
+            char c = text.charAt(position);
+            if (c == '_') {
+                if (!digitSeen || afterUnderscore) {
+                    return MALFORMED;
+                }
+                afterUnderscore = true;
+                continue;
+            }
+            int digit = Character.digit(c, radix);
+            if (digit < 0) {
+                break;
+            }
+            if (result < limit || result * radix < Long.MIN_VALUE + digit) {
+                return OUT_OF_RANGE;
+            }
+            result = result * radix - digit;
+            digitSeen = true;
+            afterUnderscore = false;
+        }
+        longValue = result;
+        return digitSeen && !afterUnderscore ? OK : MALFORMED;
+    }
+
+    private int applySizeSuffix() {
+        if (position == end) {
+            return OK;
+        }
+        if (position != end - 1) {
+            return MALFORMED;
+        }
+        int shift = sizeSuffixShift(text.charAt(position));
+        if (shift < 0) {
+            return MALFORMED;
+        }
+        if (longValue < Long.MIN_VALUE >> shift) {
+            return OUT_OF_RANGE;
+        }
+        longValue <<= shift;
+        return OK;
+    }
+
+    private static int sizeSuffixShift(char suffix) {
+        switch (suffix) {
+            case 'k':
+            case 'K':
+                return 10;
+            case 'm':
+            case 'M':
+                return 20;
+            case 'g':
+            case 'G':
+                return 30;
+            case 't':
+            case 'T':
+                return 40;
+            default:
+                return -1;
+        }
+    }
+
+    private int applySign(boolean negative, long min, long max) {
+        if (!negative) {
+            if (longValue == Long.MIN_VALUE) {
+                return OUT_OF_RANGE;
+            }
+            longValue = -longValue;
+        }
+        return longValue < min || longValue > max ? OUT_OF_RANGE : OK;
+    }
+
+    private int parseDecimal() {
+        if (matchesRest("Infinity")) {
+            doubleValue = Double.POSITIVE_INFINITY;
+            return OK;
+        }
+        if (matchesRest("NaN")) {
+            doubleValue = Double.NaN;
+            return OK;
+        }
+        int start = position;
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean digitSeen = false;
+        boolean pointSeen = false;
+        boolean afterUnderscore = false;
+        for (; position < end; position++) {
+            char c = text.charAt(position);
+            if (c == '_') {
+                if (!digitSeen || afterUnderscore) {
+                    return MALFORMED;
+                }
+                afterUnderscore = true;
+                continue;
+            }
+            if (c == '.' && !pointSeen && !afterUnderscore) {
+                pointSeen = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            int digit = c - '0';
+            if (significantDigits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0) {
+                    significantDigits++;
+                }
+                if (pointSeen) {
+                    exponent--;
+                }
+            } else {
+                exact &= digit == 0;
+                if (!pointSeen) {
+                    exponent++;
+                }
+            }
+            digitSeen = true;
+            afterUnderscore = false;
+        }
+        if (!digitSeen || afterUnderscore) {
+            return MALFORMED;
+        }
+        int mantissaEnd = position;
+        int explicitExponent = parseExponent();
+        if (explicitExponent == Integer.MIN_VALUE) {
+            return MALFORMED;
+        }
+        if (position == end - 1 && isTypeSuffix(text.charAt(position))) {
+            position++;
+        }
+        if (position != end) {
+            return MALFORMED;
+        }
+        exponent += explicitExponent;
+        if (exact && mantissa < MAX_EXACT_MANTISSA && Math.abs(exponent) < EXACT_POWERS_OF_TEN.length) {
+            doubleValue = exponent < 0
+                    ? mantissa / EXACT_POWERS_OF_TEN[-exponent]
+                    : mantissa * EXACT_POWERS_OF_TEN[exponent];
+        } else {
+            doubleValue = Double.parseDouble(withoutUnderscores(start, mantissaEnd) + "e" + explicitExponent);
+        }
+        return OK;
+    }
+
+    private static boolean isTypeSuffix(char c) {
+        switch (c) {
+            case 'd':
+            case 'D':
+            case 'f':
+            case 'F':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private int parseExponent() {
+        if (position == end || (text.charAt(position) | 0x20) != 'e') {
+            return 0;
+        }
+        position++;
+        boolean negative = false;
+        if (position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+            negative = text.charAt(position) == '-';
+            position++;
+        }
+        int exponent = 0;
+        int digitsStart = position;
+        for (; position < end; position++) {
+            char c = text.charAt(position);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            exponent = Math.min(exponent * 10 + (c - '0'), MAX_EXPONENT_DIGITS_VALUE);
+        }
+        if (position == digitsStart) {
+            return Integer.MIN_VALUE;
+        }
+        return negative ? -exponent : exponent;
+    }
+
+    private boolean matchesRest(String word) {
+        if (end - position != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (text.charAt(position + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String withoutUnderscores(int start, int end) {
+        StringBuilder digits = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c != '_') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
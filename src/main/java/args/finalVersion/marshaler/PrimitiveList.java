@@ -0,0 +1,53 @@
+package args.finalVersion.marshaler;
+
+import java.util.Arrays;
+
+/**
+ * Growable, unboxed list behind the numeric list arguments. Ints and longs are
+ * stored as-is and doubles as their raw bits, so one element type serves all three.
+ */
+public final class PrimitiveList {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] elements = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public void add(long element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = element;
+    }
+
+    public void addDouble(double element) {
+        add(Double.doubleToRawLongBits(element));
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int[] toIntArray() {
+        int[] ints = new int[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = (int) elements[i];
+        }
+        return ints;
+    }
+
+    public long[] toLongArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public double[] toDoubleArray() {
+        double[] doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            doubles[i] = Double.longBitsToDouble(elements[i]);
+        }
+        return doubles;
+    }
+}
@@ -0,0 +1,11 @@
+package args.finalVersion.marshaler;
+
+import args.finalVersion.exception.ArgsException;
+
+/**
+ * A marshaler that can take its parameter as a range of a larger text, so a tokenized
+ * {@link args.finalVersion.CommandLine} needs no {@code String} per value.
+ */
+public interface SliceArgumentMarshaler extends ArgumentMarshaler {
+    void setSlice(CharSequence text, int start, int end, ArgumentValues values, int slot) throws ArgsException;
+}
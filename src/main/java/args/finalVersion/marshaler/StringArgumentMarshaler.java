@@ -5,22 +5,23 @@ import args.finalVersion.exception.ArgsException;
 import static args.finalVersion.exception.ArgsException.ErrorCode.*;
 
 import java.util.Iterator;
-import java.util.NoSuchElementException;
 
-public class StringArgumentMarshaler implements ArgumentMarshaler {
-    private String stringValue = "";
+public class StringArgumentMarshaler implements SliceArgumentMarshaler {
 
-    public void set(Iterator<String> currentArgument) throws ArgsException {
-        try {
-            stringValue = currentArgument.next();
-        } catch (NoSuchElementException e) {
-            throw new ArgsException(MISSING_STRING);
+    public void set(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException {
+        if (!currentArgument.hasNext()) {
+            throw ArgsException.cached(MISSING_STRING, '\0');
         }
+        values.setString(slot, currentArgument.next());
     }
 
-    public static String getValue(ArgumentMarshaler am) {
+    public void setSlice(CharSequence text, int start, int end, ArgumentValues values, int slot) {
+        values.setSlice(slot, text, start, end);
+    }
+
+    public static String getValue(ArgumentMarshaler am, ArgumentValues values, int slot) {
         if (am instanceof StringArgumentMarshaler) {
-            return ((StringArgumentMarshaler) am).stringValue;
+            return values.getString(slot);
         } else {
             return "";
         }
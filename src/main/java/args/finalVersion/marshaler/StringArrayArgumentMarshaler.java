@@ -2,32 +2,98 @@ package args.finalVersion.marshaler;
 
 import args.finalVersion.exception.ArgsException;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import static args.finalVersion.exception.ArgsException.ErrorCode.INVALID_ARGUMENT_FILE;
 import static args.finalVersion.exception.ArgsException.ErrorCode.MISSING_STRING;
 
 
+/**
+ * Consumes every remaining token. When argument files are expanded, a token {@code @path}
+ * is replaced by the lines of a memory-mapped {@link ArgumentFile} and {@code @@text}
+ * stands for the literal {@code @text}; otherwise every token is taken literally.
+ */
 public class StringArrayArgumentMarshaler implements ArgumentMarshaler {
-    private final List<String> stringArray = new ArrayList<>();
+    private static final String ARGUMENT_FILE_PREFIX = "@";
+
+    private final boolean expandArgumentFiles;
+
+    public StringArrayArgumentMarshaler(boolean expandArgumentFiles) {
+        this.expandArgumentFiles = expandArgumentFiles;
+    }
 
     @Override
-    public void set(Iterator<String> currentArgument) throws ArgsException {
+    public void set(Iterator<String> currentArgument, ArgumentValues values, int slot) throws ArgsException {
         if (currentArgument.hasNext()) {
+            if (!expandArgumentFiles) {
+                values.setStringList(slot, literals(currentArgument));
+                return;
+            }
+            List<List<String>> segments = new ArrayList<>();
+            List<String> literals = new ArrayList<>();
             while (currentArgument.hasNext()) {
-                stringArray.add(currentArgument.next());
+                String token = currentArgument.next();
+                if (isArgumentFile(token)) {
+                    addLiterals(segments, literals);
+                    literals = new ArrayList<>();
+                    segments.add(mapArgumentFile(token.substring(1)));
+                } else {
+                    literals.add(unescape(token));
+                }
             }
+            addLiterals(segments, literals);
+            values.setStringList(slot, segments.size() == 1 ? segments.get(0) : new StringSegments(segments));
         } else {
-            throw new ArgsException(MISSING_STRING, "Expected one or more strings but got none.");
+            throw ArgsException.cached(MISSING_STRING, '\0');
         }
     }
 
-    public static String[] getValue(ArgumentMarshaler am) {
+    private static List<String> literals(Iterator<String> currentArgument) {
+        List<String> literals = new ArrayList<>();
+        currentArgument.forEachRemaining(literals::add);
+        return Collections.unmodifiableList(literals);
+    }
+
+    private static boolean isArgumentFile(String token) {
+        return token.startsWith(ARGUMENT_FILE_PREFIX) && token.length() > 1 && token.charAt(1) != '@';
+    }
+
+    private static String unescape(String token) {
+        return token.startsWith("@@") ? token.substring(1) : token;
+    }
+
+    private static void addLiterals(List<List<String>> segments, List<String> literals) {
+        if (!literals.isEmpty()) {
+            segments.add(Collections.unmodifiableList(literals));
+        }
+    }
+
+    private static ArgumentFile mapArgumentFile(String path) throws ArgsException {
+        try {
+            return ArgumentFile.map(Paths.get(path));
+        } catch (IOException | RuntimeException e) {
+            throw ArgsException.stackless(INVALID_ARGUMENT_FILE, path);
+        }
+    }
+
+    public static String[] getValue(ArgumentMarshaler am, ArgumentValues values, int slot) {
         if (am instanceof StringArrayArgumentMarshaler) {
-            return ((StringArrayArgumentMarshaler) am).stringArray.toArray(new String[0]);
+            return values.getStringArray(slot);
         } else {
             return new String[0];
         }
     }
+
+    public static List<String> getList(ArgumentMarshaler am, ArgumentValues values, int slot) {
+        if (am instanceof StringArrayArgumentMarshaler) {
+            return values.getStringList(slot);
+        } else {
+            return Collections.emptyList();
+        }
+    }
 }
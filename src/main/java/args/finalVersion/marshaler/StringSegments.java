@@ -0,0 +1,60 @@
+package args.finalVersion.marshaler;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * Read-only concatenation of literal tokens and {@link ArgumentFile}s, indexed
+ * without copying any of them.
+ */
+final class StringSegments extends AbstractList<String> implements RandomAccess {
+    private final List<List<String>> segments;
+    private final int[] segmentStarts;
+    private final int size;
+
+    StringSegments(List<List<String>> segments) {
+        this.segments = segments;
+        segmentStarts = new int[segments.size()];
+        int start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            segmentStarts[i] = start;
+            start += segments.get(i).size();
+        }
+        size = start;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Token " + index + " of " + size);
+        }
+        int segment = segmentOf(index);
+        return segments.get(segment).get(index - segmentStarts[segment]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+        return new TokenSpliterator(this, 0, size);
+    }
+
+    private int segmentOf(int index) {
+        int low = 0;
+        int high = segmentStarts.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segmentStarts[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+}
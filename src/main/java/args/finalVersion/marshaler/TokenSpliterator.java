@@ -0,0 +1,60 @@
+package args.finalVersion.marshaler;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splits a read-only, random-access token list by index range, so parallel streams
+ * over a large {@code [*]} argument fan out without copying the tokens.
+ */
+final class TokenSpliterator implements Spliterator<String> {
+    private static final int MINIMUM_SPLIT_SIZE = 1024;
+
+    private final List<String> tokens;
+    private int from;
+    private final int to;
+
+    TokenSpliterator(List<String> tokens, int from, int to) {
+        this.tokens = tokens;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(tokens.get(from++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        for (; from < to; from++) {
+            action.accept(tokens.get(from));
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (to - from < MINIMUM_SPLIT_SIZE) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Spliterator<String> prefix = new TokenSpliterator(tokens, from, middle);
+        from = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+}
@@ -0,0 +1,116 @@
+package args.finalVersion.monitoring;
+
+import args.finalVersion.exception.ArgsException.ErrorCode;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide parse counters and latency histogram for a local metrics scraper to poll
+ * through {@link #snapshot()}. Disabled by default; while disabled, recording is a
+ * single volatile read and parses do not read the clock.
+ */
+public final class ArgsMetrics {
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+
+    private static volatile boolean enabled;
+    private static final LongAdder compiles = new LongAdder();
+    private static final LongAdder[] outcomes = new LongAdder[ERROR_CODES.length];
+    private static final LatencyHistogram latencies = new LatencyHistogram();
+
+    static {
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    private ArgsMetrics() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void reset() {
+        compiles.reset();
+        for (LongAdder outcome : outcomes) {
+            outcome.reset();
+        }
+        latencies.reset();
+    }
+
+    public static long startTime() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void recordCompile() {
+        if (enabled) {
+            compiles.increment();
+        }
+    }
+
+    public static void recordParse(long startTime, ErrorCode outcome) {
+        if (enabled && startTime != 0) {
+            latencies.record(System.nanoTime() - startTime);
+            outcomes[outcome.ordinal()].increment();
+        }
+    }
+
+    public static Snapshot snapshot() {
+        long[] outcomeCounts = new long[outcomes.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomeCounts[i] = outcomes[i].sum();
+        }
+        return new Snapshot(compiles.sum(), outcomeCounts, latencies.snapshot());
+    }
+
+    public static final class Snapshot {
+        private final long compileCount;
+        private final long[] outcomeCounts;
+        private final long[] latencyCounts;
+
+        private Snapshot(long compileCount, long[] outcomeCounts, long[] latencyCounts) {
+            this.compileCount = compileCount;
+            this.outcomeCounts = outcomeCounts;
+            this.latencyCounts = latencyCounts;
+        }
+
+        public long compileCount() {
+            return compileCount;
+        }
+
+        public long parseCount() {
+            long total = 0;
+            for (long count : outcomeCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Parses that ended with {@code errorCode}; {@link ErrorCode#OK} counts successful parses.
+         */
+        public long count(ErrorCode errorCode) {
+            return outcomeCounts[errorCode.ordinal()];
+        }
+
+        public long p50Nanos() {
+            return LatencyHistogram.percentile(latencyCounts, 50);
+        }
+
+        public long p99Nanos() {
+            return LatencyHistogram.percentile(latencyCounts, 99);
+        }
+
+        public long percentileNanos(double percentile) {
+            return LatencyHistogram.percentile(latencyCounts, percentile);
+        }
+    }
+}
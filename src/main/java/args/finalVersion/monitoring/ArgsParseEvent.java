@@ -0,0 +1,22 @@
+package args.finalVersion.monitoring;
+
+import jdk.jfr.*;
+
+@Name("args.Parse")
+@Label("Argument Parse")
+@Category("Args")
+@Description("One parse or validation of an argument array against a compiled schema")
+@StackTrace(false)
+public class ArgsParseEvent extends Event {
+    @Label("Mode")
+    public String mode;
+
+    @Label("Argument Count")
+    public int argumentCount;
+
+    @Label("Error Code")
+    public String errorCode;
+
+    @Label("Error Count")
+    public int errorCount;
+}
@@ -0,0 +1,15 @@
+package args.finalVersion.monitoring;
+
+import jdk.jfr.*;
+
+@Name("args.SchemaCompile")
+@Label("Argument Schema Compile")
+@Category("Args")
+@StackTrace(false)
+public class ArgsSchemaCompileEvent extends Event {
+    @Label("Schema")
+    public String schema;
+
+    @Label("Element Count")
+    public int elementCount;
+}
@@ -1,6 +1,6 @@
 package comparisonCompactor_TDD;
 
-import junit.framework.Assert;
+import java.io.IOException;
 
 public class FinalComparisonCompactor {
     private static final String ELLIPSIS = "...";
@@ -22,16 +22,55 @@ public class FinalComparisonCompactor {
     }
 
     public String formatCompactedComparison(String message) {
-        String compactExpected = expected;
-        String compactActual = actual;
+        return appendCompactedComparison(message, new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends what {@link #formatCompactedComparison} returns. Context and deltas are copied
+     * as ranges of {@code expected} and {@code actual}, so nothing is allocated but the output.
+     */
+    public StringBuilder appendCompactedComparison(String message, StringBuilder out) {
+        try {
+            appendCompactedComparison(message, (Appendable) out);
+            return out;
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder cannot throw IOException", e);
+        }
+    }
 
-        if (shouldBeCompacted()) {
+    /**
+     * Writes the message in the layout of {@code junit.framework.Assert.format}.
+     */
+    public <A extends Appendable> A appendCompactedComparison(String message, A out) throws IOException {
+        boolean compacted = shouldBeCompacted();
+        if (compacted) {
             findCommonPrefixAndSuffix();
-            compactExpected = compact(expected);
-            compactActual = compact(actual);
         }
+        if (message != null && !message.isEmpty()) {
+            out.append(message).append(' ');
+        }
+        out.append("expected:<");
+        appendValue(out, expected, compacted);
+        out.append("> but was:<");
+        appendValue(out, actual, compacted);
+        out.append('>');
+        return out;
+    }
+
+    /**
+     * {@code expected} as {@link #formatCompactedComparison} shows it; both strings must be non-null and differ.
+     */
+    String compactExpected() {
+        findCommonPrefixAndSuffix();
+        return compact(expected);
+    }
 
-        return Assert.format(message, compactExpected, compactActual);
+    /**
+     * {@code actual} as {@link #formatCompactedComparison} shows it; both strings must be non-null and differ.
+     */
+    String compactActual() {
+        findCommonPrefixAndSuffix();
+        return compact(actual);
     }
 
     private boolean shouldBeCompacted() {
@@ -46,65 +85,72 @@ public class FinalComparisonCompactor {
 
     private void findCommonPrefixAndSuffix() {
         findCommonPrefix();
-        suffixLength = 0;
-        for (; !suffixOverlapsPrefix(); suffixLength++) {
-            if (charFromEnd(expected, suffixLength) != charFromEnd(actual, suffixLength))
-                break;
-        }
+        suffixLength = CommonAffixes.suffixLength(expected, actual, longestSuffixNotOverlappingPrefix());
     }
 
-    private char charFromEnd(String s, int i) {
-        return s.charAt(s.length() - i - 1);
+    private int longestSuffixNotOverlappingPrefix() {
+        return Math.min(expected.length(), actual.length()) - prefixLength;
     }
 
-    private boolean suffixOverlapsPrefix() {
-        return actual.length() - suffixLength <= prefixLength ||
-                expected.length() - suffixLength <= prefixLength;
+    private void findCommonPrefix() {
+        prefixLength = CommonAffixes.prefixLength(expected, actual);
     }
 
-    private void findCommonPrefix() {
-        prefixLength = 0;
-        int end = Math.min(expected.length(), actual.length());
-        for (; prefixLength < end; prefixLength++) {
-            if (expected.charAt(prefixLength) != actual.charAt(prefixLength)) {
-                break;
-            }
+    private void appendValue(Appendable out, String s, boolean compacted) throws IOException {
+        if (compacted) {
+            appendCompacted(out, s);
+        } else {
+            out.append(String.valueOf(s));
         }
     }
 
     private String compact(String s) {
-        return startingEllipsis() +
-                startingContext() +
-                DELTA_START +
-                delta(s) +
-                DELTA_END +
-                endingContext() +
-                endingEllipsis();
+        StringBuilder compacted = new StringBuilder();
+        try {
+            appendCompacted(compacted, s);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder cannot throw IOException", e);
+        }
+        return compacted.toString();
     }
 
-    private String startingEllipsis() {
-        return prefixLength > contextLength ? ELLIPSIS : "";
+    private void appendCompacted(Appendable out, String s) throws IOException {
+        appendStartingEllipsis(out);
+        appendStartingContext(out);
+        out.append(DELTA_START);
+        appendDelta(out, s);
+        out.append(DELTA_END);
+        appendEndingContext(out);
+        appendEndingEllipsis(out);
     }
 
-    private String startingContext() {
+    private void appendStartingEllipsis(Appendable out) throws IOException {
+        if (prefixLength > contextLength) {
+            out.append(ELLIPSIS);
+        }
+    }
+
+    private void appendStartingContext(Appendable out) throws IOException {
         int contextStart = Math.max(0, prefixLength - contextLength);
         int contextEnd = prefixLength;
-        return expected.substring(contextStart, contextEnd);
+        out.append(expected, contextStart, contextEnd);
     }
 
-    private String delta(String s) {
+    private void appendDelta(Appendable out, String s) throws IOException {
         int deltaStart = prefixLength;
         int deltaEnd = s.length() - suffixLength;
-        return s.substring(deltaStart, deltaEnd);
+        out.append(s, deltaStart, deltaEnd);
     }
 
-    private String endingContext() {
+    private void appendEndingContext(Appendable out) throws IOException {
         int contextStart = expected.length() - suffixLength;
         int contextEnd = Math.min(contextStart + contextLength, expected.length());
-        return expected.substring(contextStart, contextEnd);
+        out.append(expected, contextStart, contextEnd);
     }
 
-    private String endingEllipsis() {
-        return (suffixLength > contextLength ? ELLIPSIS : "");
+    private void appendEndingEllipsis(Appendable out) throws IOException {
+        if (suffixLength > contextLength) {
+            out.append(ELLIPSIS);
+        }
     }
 }
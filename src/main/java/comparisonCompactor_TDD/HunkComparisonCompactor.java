@@ -0,0 +1,87 @@
+package comparisonCompactor_TDD;
+
+import junit.framework.Assert;
+
+import java.util.List;
+
+/**
+ * Reports every place where {@code expected} and {@code actual} differ, instead of the
+ * single delta between common prefix and common suffix that {@link FinalComparisonCompactor}
+ * shows. Each hunk of a shortest edit script is bracketed and the unchanged text between
+ * hunks is cut down to {@code contextLength} chars on each side:
+ * <pre>expected:&lt;...bc[X]de...mn[Y]op...&gt; but was:&lt;...bc[Z]de...mn[W]op...&gt;</pre>
+ * When the edit distance is over {@code maxEditDistance} the search stops early and the
+ * single-delta form is reported instead.
+ */
+public class HunkComparisonCompactor {
+    public static final int DEFAULT_MAX_EDIT_DISTANCE = 1000;
+
+    private static final String ELLIPSIS = "...";
+    private static final String DELTA_END = "]";
+    private static final String DELTA_START = "[";
+
+    private final int contextLength;
+    private final String expected;
+    private final String actual;
+    private final int maxEditDistance;
+
+    public HunkComparisonCompactor(int contextLength, String expected, String actual) {
+        this(contextLength, expected, actual, DEFAULT_MAX_EDIT_DISTANCE);
+    }
+
+    public HunkComparisonCompactor(int contextLength, String expected, String actual, int maxEditDistance) {
+        this.contextLength = contextLength;
+        this.expected = expected;
+        this.actual = actual;
+        this.maxEditDistance = maxEditDistance;
+    }
+
+    public String formatCompactedComparison(String message) {
+        if (shouldNotBeCompacted()) {
+            return Assert.format(message, expected, actual);
+        }
+        List<MyersDiff.Hunk> hunks = MyersDiff.diff(expected.length(), actual.length(),
+                (e, a) -> expected.charAt(e) == actual.charAt(a), maxEditDistance);
+        if (hunks == null) {
+            return new FinalComparisonCompactor(contextLength, expected, actual).formatCompactedComparison(message);
+        }
+        return Assert.format(message, compact(hunks, true), compact(hunks, false));
+    }
+
+    private boolean shouldNotBeCompacted() {
+        return expected == null ||
+                actual == null ||
+                expected.equals(actual);
+    }
+
+    private String compact(List<MyersDiff.Hunk> hunks, boolean expectedSide) {
+        StringBuilder compacted = new StringBuilder();
+        int unchangedStart = 0;
+        int keptAfterHunk = 0;
+        for (MyersDiff.Hunk hunk : hunks) {
+            appendUnchanged(compacted, unchangedStart, hunk.expectedStart, keptAfterHunk, contextLength);
+            compacted.append(DELTA_START)
+                    .append(expectedSide
+                            ? expected.substring(hunk.expectedStart, hunk.expectedEnd)
+                            : actual.substring(hunk.actualStart, hunk.actualEnd))
+                    .append(DELTA_END);
+            unchangedStart = hunk.expectedEnd;
+            keptAfterHunk = contextLength;
+        }
+        appendUnchanged(compacted, unchangedStart, expected.length(), keptAfterHunk, 0);
+        return compacted.toString();
+    }
+
+    /**
+     * Appends {@code expected[start..end)}, keeping only the chars next to the hunks around it.
+     */
+    private void appendUnchanged(StringBuilder compacted, int start, int end, int keptAfterHunk, int keptBeforeHunk) {
+        if (end - start <= keptAfterHunk + keptBeforeHunk) {
+            compacted.append(expected, start, end);
+            return;
+        }
+        compacted.append(expected, start, start + keptAfterHunk)
+                .append(ELLIPSIS)
+                .append(expected, end - keptBeforeHunk, end);
+    }
+}
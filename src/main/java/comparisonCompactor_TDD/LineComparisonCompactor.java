@@ -0,0 +1,237 @@
+package comparisonCompactor_TDD;
+
+import junit.framework.Assert;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Compacts multi-line values line by line. Every line is hashed once, the two hash
+ * sequences are diffed with {@link MyersDiff}, and only the lines of changed hunks are
+ * shown, with {@code contextLines} unchanged lines around each hunk. A changed line paired
+ * with its replacement is compacted char by char as {@link FinalComparisonCompactor} would;
+ * added and removed lines are bracketed whole:
+ * <pre>
+ * expected:&lt;&lt;&lt;3 lines elided&gt;&gt;
+ * line 4
+ * li[n]e 5
+ * [removed line]
+ * line 7
+ * &lt;&lt;12 lines elided&gt;&gt;&gt;</pre>
+ * Left-out lines are replaced by one {@code <<N lines elided>>} marker, which carries the
+ * count, unlike a bare {@code ...} that a value could just as well contain. Within a hunk, runs of paired,
+ * removed or added lines longer than {@link #MAX_HUNK_LINES} keep only their first and last
+ * {@code MAX_HUNK_LINES / 2} lines.
+ * <p>
+ * The work is linear in the length of the values plus O(lines * changed lines), and the
+ * message grows only with the number of changed lines. When more than
+ * {@code maxEditDistance} lines are added or removed, the lines between the first and
+ * the last difference are reported as one hunk, which is cut down the same way.
+ */
+public class LineComparisonCompactor {
+    public static final int MAX_HUNK_LINES = 40;
+
+    private static final String ELISION_START = "<<";
+    private static final String ELISION_END = " lines elided>>";
+    private static final String DELTA_END = "]";
+    private static final String DELTA_START = "[";
+
+    private final int contextLines;
+    private final int contextLength;
+    private final String expected;
+    private final String actual;
+    private final int maxEditDistance;
+    private Lines expectedLines;
+    private Lines actualLines;
+
+    public LineComparisonCompactor(int contextLines, int contextLength, String expected, String actual) {
+        this(contextLines, contextLength, expected, actual, HunkComparisonCompactor.DEFAULT_MAX_EDIT_DISTANCE);
+    }
+
+    public LineComparisonCompactor(int contextLines, int contextLength, String expected, String actual,
+                                   int maxEditDistance) {
+        this.contextLines = contextLines;
+        this.contextLength = contextLength;
+        this.expected = expected;
+        this.actual = actual;
+        this.maxEditDistance = maxEditDistance;
+    }
+
+    public String formatCompactedComparison(String message) {
+        if (shouldNotBeCompacted()) {
+            return Assert.format(message, expected, actual);
+        }
+        expectedLines = new Lines(expected);
+        actualLines = new Lines(actual);
+        List<MyersDiff.Hunk> hunks = MyersDiff.diff(expectedLines.count(), actualLines.count(),
+                this::sameLine, maxEditDistance);
+        if (hunks == null) {
+            hunks = List.of(hunkBetweenCommonPrefixAndSuffix());
+        }
+        StringJoiner compactExpected = new StringJoiner("\n");
+        StringJoiner compactActual = new StringJoiner("\n");
+        int unchangedStart = 0;
+        int keptAfterHunk = 0;
+        for (MyersDiff.Hunk hunk : hunks) {
+            addUnchanged(compactExpected, compactActual, unchangedStart, hunk.expectedStart, keptAfterHunk, contextLines);
+            addChanged(compactExpected, compactActual, hunk);
+            unchangedStart = hunk.expectedEnd;
+            keptAfterHunk = contextLines;
+        }
+        addUnchanged(compactExpected, compactActual, unchangedStart, expectedLines.count(), keptAfterHunk, 0);
+        return Assert.format(message, compactExpected.toString(), compactActual.toString());
+    }
+
+    private boolean shouldNotBeCompacted() {
+        return expected == null ||
+                actual == null ||
+                expected.equals(actual);
+    }
+
+    private boolean sameLine(int expectedLine, int actualLine) {
+        return expectedLines.hash(expectedLine) == actualLines.hash(actualLine)
+                && expectedLines.length(expectedLine) == actualLines.length(actualLine)
+                && expected.regionMatches(expectedLines.start(expectedLine),
+                actual, actualLines.start(actualLine), actualLines.length(actualLine));
+    }
+
+    private MyersDiff.Hunk hunkBetweenCommonPrefixAndSuffix() {
+        int prefix = 0;
+        int shorter = Math.min(expectedLines.count(), actualLines.count());
+        while (prefix < shorter && sameLine(prefix, prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shorter - prefix
+                && sameLine(expectedLines.count() - suffix - 1, actualLines.count() - suffix - 1)) {
+            suffix++;
+        }
+        return new MyersDiff.Hunk(prefix, expectedLines.count() - suffix, prefix, actualLines.count() - suffix);
+    }
+
+    /**
+     * Adds expected lines {@code [start..end)} to both sides, keeping only the lines next to the hunks around them.
+     */
+    private void addUnchanged(StringJoiner compactExpected, StringJoiner compactActual, int start, int end,
+                              int keptAfterHunk, int keptBeforeHunk) {
+        if (end - start <= keptAfterHunk + keptBeforeHunk) {
+            addUnchangedLines(compactExpected, compactActual, start, end);
+            return;
+        }
+        addUnchangedLines(compactExpected, compactActual, start, start + keptAfterHunk);
+        String elision = elision(end - start - keptAfterHunk - keptBeforeHunk);
+        compactExpected.add(elision);
+        compactActual.add(elision);
+        addUnchangedLines(compactExpected, compactActual, end - keptBeforeHunk, end);
+    }
+
+    private void addUnchangedLines(StringJoiner compactExpected, StringJoiner compactActual, int start, int end) {
+        for (int line = start; line < end; line++) {
+            String text = expectedLines.line(line);
+            compactExpected.add(text);
+            compactActual.add(text);
+        }
+    }
+
+    private void addChanged(StringJoiner compactExpected, StringJoiner compactActual, MyersDiff.Hunk hunk) {
+        int expectedCount = hunk.expectedEnd - hunk.expectedStart;
+        int actualCount = hunk.actualEnd - hunk.actualStart;
+        int pairs = Math.min(expectedCount, actualCount);
+        for (int i = 0; i < pairs; i++) {
+            if (isShown(i, pairs)) {
+                addChangedPair(compactExpected, compactActual,
+                        expectedLines.line(hunk.expectedStart + i), actualLines.line(hunk.actualStart + i));
+            } else if (i == MAX_HUNK_LINES / 2) {
+                String elision = elision(pairs - MAX_HUNK_LINES);
+                compactExpected.add(elision);
+                compactActual.add(elision);
+            }
+        }
+        addWhole(compactExpected, expectedLines, hunk.expectedStart + pairs, expectedCount - pairs);
+        addWhole(compactActual, actualLines, hunk.actualStart + pairs, actualCount - pairs);
+    }
+
+    private void addWhole(StringJoiner compacted, Lines lines, int start, int count) {
+        for (int i = 0; i < count; i++) {
+            if (isShown(i, count)) {
+                compacted.add(DELTA_START + lines.line(start + i) + DELTA_END);
+            } else if (i == MAX_HUNK_LINES / 2) {
+                compacted.add(elision(count - MAX_HUNK_LINES));
+            }
+        }
+    }
+
+    private static boolean isShown(int index, int count) {
+        return count <= MAX_HUNK_LINES || index < MAX_HUNK_LINES / 2 || index >= count - MAX_HUNK_LINES / 2;
+    }
+
+    private static String elision(int lineCount) {
+        return ELISION_START + lineCount + ELISION_END;
+    }
+
+    private void addChangedPair(StringJoiner compactExpected, StringJoiner compactActual,
+                                String expectedLine, String actualLine) {
+        if (expectedLine.equals(actualLine)) {
+            compactExpected.add(expectedLine);
+            compactActual.add(actualLine);
+            return;
+        }
+        FinalComparisonCompactor compactor = new FinalComparisonCompactor(contextLength, expectedLine, actualLine);
+        compactExpected.add(compactor.compactExpected());
+        compactActual.add(compactor.compactActual());
+    }
+
+    /**
+     * The {@code '\n'}-separated lines of a value, as offsets and hashes; n newlines make n + 1 lines.
+     */
+    private static final class Lines {
+        private final String text;
+        private final int[] starts;
+        private final int[] hashes;
+
+        Lines(String text) {
+            this.text = text;
+            int count = 1;
+            for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) {
+                count++;
+            }
+            starts = new int[count + 1];
+            hashes = new int[count];
+            int line = 0;
+            int hash = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\n') {
+                    hashes[line++] = hash;
+                    starts[line] = i + 1;
+                    hash = 0;
+                } else {
+                    hash = 31 * hash + c;
+                }
+            }
+            hashes[line] = hash;
+            // one past the last line, as if the text ended in a newline
+            starts[count] = text.length() + 1;
+        }
+
+        int count() {
+            return hashes.length;
+        }
+
+        int hash(int line) {
+            return hashes[line];
+        }
+
+        int start(int line) {
+            return starts[line];
+        }
+
+        int length(int line) {
+            return starts[line + 1] - 1 - starts[line];
+        }
+
+        String line(int line) {
+            return text.substring(starts[line], starts[line] + length(line));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package comparisonCompactor_TDD;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link CommonAffixes} for mapped files: the contents are compared a mapped window at a
+ * time with {@link ByteBuffer#mismatch}, forwards for the prefix and backwards for the suffix.
+ */
+final class MappedAffixes {
+    private static final long WINDOW_LENGTH = 64L * 1024 * 1024;
+    private static final int SLICE_LENGTH = 4 * 1024;
+
+    private MappedAffixes() {
+    }
+
+    static long prefixLength(MappedContent a, MappedContent b) throws IOException {
+        long end = Math.min(a.size(), b.size());
+        for (long position = 0; position < end; position += WINDOW_LENGTH) {
+            long length = Math.min(WINDOW_LENGTH, end - position);
+            int mismatch = a.map(position, length).mismatch(b.map(position, length));
+            if (mismatch >= 0) {
+                return position + mismatch;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * The length of the common suffix, at most {@code limit} bytes.
+     */
+    static long suffixLength(MappedContent a, MappedContent b, long limit) throws IOException {
+        for (long suffix = 0; suffix < limit; suffix += WINDOW_LENGTH) {
+            int length = (int) Math.min(WINDOW_LENGTH, limit - suffix);
+            ByteBuffer windowA = a.map(a.size() - suffix - length, length);
+            ByteBuffer windowB = b.map(b.size() - suffix - length, length);
+            int common = commonSuffixLength(windowA, windowB, length);
+            if (common < length) {
+                return suffix + common;
+            }
+        }
+        return limit;
+    }
+
+    private static int commonSuffixLength(ByteBuffer a, ByteBuffer b, int length) {
+        for (int sliceEnd = length; sliceEnd > 0; sliceEnd -= SLICE_LENGTH) {
+            int sliceStart = Math.max(0, sliceEnd - SLICE_LENGTH);
+            if (slice(a, sliceStart, sliceEnd).mismatch(slice(b, sliceStart, sliceEnd)) >= 0) {
+                int last = sliceEnd - 1;
+                while (a.get(last) == b.get(last)) {
+                    last--;
+                }
+                return length - last - 1;
+            }
+        }
+        return length;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int end) {
+        return buffer.duplicate().position(start).limit(end).slice();
+    }
+}
@@ -0,0 +1,76 @@
+package comparisonCompactor_TDD;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a UTF-8 file that is mapped a region at a time, so files far
+ * larger than the heap can be compared and only the text that is shown gets decoded.
+ */
+final class MappedContent implements Closeable {
+    private static final int DECODE_WINDOW_LENGTH = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final ByteBuffer oneByte = ByteBuffer.allocate(1);
+
+    MappedContent(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    long size() {
+        return size;
+    }
+
+    ByteBuffer map(long position, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    /**
+     * Whether a character starts at {@code position}, i.e. it is not inside a multi-byte sequence.
+     */
+    boolean isCharBoundary(long position) throws IOException {
+        return position == 0 || position == size || !isContinuationByte(byteAt(position));
+    }
+
+    /**
+     * Decodes {@code [start..end)}, which must both be char boundaries, a bounded window at a time.
+     */
+    String decode(long start, long end) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (long windowStart = start; windowStart < end; ) {
+            long windowEnd = Math.min(end, windowStart + DECODE_WINDOW_LENGTH);
+            while (!isCharBoundary(windowEnd)) {
+                windowEnd--;
+            }
+            text.append(StandardCharsets.UTF_8.decode(map(windowStart, windowEnd - windowStart)));
+            windowStart = windowEnd;
+        }
+        return text.toString();
+    }
+
+    private byte byteAt(long position) throws IOException {
+        oneByte.clear();
+        while (oneByte.hasRemaining()) {
+            if (channel.read(oneByte, position) < 0) {
+                throw new IOException("File shrank below " + position + " bytes while being compared");
+            }
+        }
+        return oneByte.get(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static boolean isContinuationByte(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+}
@@ -0,0 +1,154 @@
+package comparisonCompactor_TDD;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Myers' O(ND) difference algorithm in its linear-space form: each step finds the
+ * middle snake of the shortest edit script and recurses on the halves before and
+ * after it. The sequences are only seen through an {@link Equality} of positions,
+ * so chars, lines or anything else indexable can be diffed.
+ */
+final class MyersDiff {
+    private final Equality equality;
+    private final int[] forward;
+    private final int[] backward;
+    private final int offset;
+    private final List<Hunk> hunks = new ArrayList<>();
+
+    interface Equality {
+        boolean equal(int expectedIndex, int actualIndex);
+    }
+
+    /**
+     * A run of {@code expected[expectedStart..expectedEnd)} that became
+     * {@code actual[actualStart..actualEnd)}; either range may be empty.
+     */
+    static final class Hunk {
+        final int expectedStart;
+        final int expectedEnd;
+        final int actualStart;
+        final int actualEnd;
+
+        Hunk(int expectedStart, int expectedEnd, int actualStart, int actualEnd) {
+            this.expectedStart = expectedStart;
+            this.expectedEnd = expectedEnd;
+            this.actualStart = actualStart;
+            this.actualEnd = actualEnd;
+        }
+    }
+
+    private MyersDiff(Equality equality, int maxSteps) {
+        this.equality = equality;
+        this.offset = maxSteps + 1;
+        this.forward = new int[2 * offset + 1];
+        this.backward = new int[2 * offset + 1];
+    }
+
+    /**
+     * The hunks of a shortest edit script, in order, or {@code null} when it needs more
+     * than {@code maxEditDistance} insertions and deletions. The search gives up after
+     * O((expectedLength + actualLength) * maxEditDistance) comparisons.
+     */
+    static List<Hunk> diff(int expectedLength, int actualLength, Equality equality, int maxEditDistance) {
+        int maxSteps = (Math.min(maxEditDistance, expectedLength + actualLength) + 1) / 2;
+        MyersDiff diff = new MyersDiff(equality, maxSteps);
+        return diff.diff(0, expectedLength, 0, actualLength, maxSteps, maxEditDistance) ? diff.hunks : null;
+    }
+
+    private boolean diff(int expectedStart, int expectedEnd, int actualStart, int actualEnd,
+                         int maxSteps, int maxEditDistance) {
+        while (expectedStart < expectedEnd && actualStart < actualEnd && equality.equal(expectedStart, actualStart)) {
+            expectedStart++;
+            actualStart++;
+        }
+        while (expectedStart < expectedEnd && actualStart < actualEnd
+                && equality.equal(expectedEnd - 1, actualEnd - 1)) {
+            expectedEnd--;
+            actualEnd--;
+        }
+        if (expectedStart == expectedEnd || actualStart == actualEnd) {
+            if (expectedStart != expectedEnd || actualStart != actualEnd) {
+                addHunk(expectedStart, expectedEnd, actualStart, actualEnd);
+            }
+            return expectedEnd - expectedStart + actualEnd - actualStart <= maxEditDistance;
+        }
+        long snake = middleSnake(expectedStart, expectedEnd, actualStart, actualEnd, maxSteps, maxEditDistance);
+        if (snake < 0) {
+            return false;
+        }
+        int snakeExpectedStart = (int) (snake >>> 32);
+        int snakeActualStart = (int) snake;
+        int snakeLength = snakeLength(snakeExpectedStart, expectedEnd, snakeActualStart, actualEnd);
+        diff(expectedStart, snakeExpectedStart, actualStart, snakeActualStart, maxSteps, Integer.MAX_VALUE);
+        diff(snakeExpectedStart + snakeLength, expectedEnd, snakeActualStart + snakeLength, actualEnd,
+                maxSteps, Integer.MAX_VALUE);
+        return true;
+    }
+
+    /**
+     * Where the middle snake starts, packed as {@code expectedIndex << 32 | actualIndex}, or
+     * -1 when the edit distance is over {@code maxEditDistance}. Both sequences are non-empty
+     * and differ at both ends, so the distance is at least two.
+     */
+    private long middleSnake(int expectedStart, int expectedEnd, int actualStart, int actualEnd,
+                             int maxSteps, int maxEditDistance) {
+        int n = expectedEnd - expectedStart;
+        int m = actualEnd - actualStart;
+        int delta = n - m;
+        boolean odd = (delta & 1) != 0;
+        forward[offset + 1] = 0;
+        backward[offset + 1] = 0;
+        for (int d = 0; d <= maxSteps; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = nextX(forward, k, d);
+                int startX = x;
+                while (x < n && x - k < m && equality.equal(expectedStart + x, actualStart + x - k)) {
+                    x++;
+                }
+                forward[offset + k] = x;
+                if (odd && delta - k >= -(d - 1) && delta - k <= d - 1 && x + backward[offset + delta - k] >= n) {
+                    return 2 * d - 1 <= maxEditDistance ? pack(expectedStart + startX, actualStart + startX - k) : -1;
+                }
+            }
+            for (int k = -d; k <= d; k += 2) {
+                int x = nextX(backward, k, d);
+                while (x < n && x - k < m
+                        && equality.equal(expectedEnd - 1 - x, actualEnd - 1 - (x - k))) {
+                    x++;
+                }
+                backward[offset + k] = x;
+                if (!odd && delta - k >= -d && delta - k <= d && x + forward[offset + delta - k] >= n) {
+                    return 2 * d <= maxEditDistance ? pack(expectedEnd - x, actualEnd - (x - k)) : -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int nextX(int[] v, int k, int d) {
+        return k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]) ? v[offset + k + 1] : v[offset + k - 1] + 1;
+    }
+
+    private int snakeLength(int expectedIndex, int expectedEnd, int actualIndex, int actualEnd) {
+        int length = 0;
+        while (expectedIndex + length < expectedEnd && actualIndex + length < actualEnd
+                && equality.equal(expectedIndex + length, actualIndex + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static long pack(int expectedIndex, int actualIndex) {
+        return (long) expectedIndex << 32 | actualIndex;
+    }
+
+    private void addHunk(int expectedStart, int expectedEnd, int actualStart, int actualEnd) {
+        Hunk last = hunks.isEmpty() ? null : hunks.get(hunks.size() - 1);
+        if (last != null && last.expectedEnd == expectedStart && last.actualEnd == actualStart) {
+            hunks.set(hunks.size() - 1, new Hunk(last.expectedStart, expectedEnd, last.actualStart, actualEnd));
+        } else {
+            hunks.add(new Hunk(expectedStart, expectedEnd, actualStart, actualEnd));
+        }
+    }
+}
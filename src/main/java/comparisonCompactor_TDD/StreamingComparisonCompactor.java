@@ -0,0 +1,208 @@
+package comparisonCompactor_TDD;
+
+import junit.framework.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * {@link FinalComparisonCompactor} for UTF-8 files and streams too large for the heap.
+ * Files are memory-mapped and compared in place; streams are first copied to temporary
+ * files, since the common suffix has to be read backwards. Only the context and the
+ * differing parts are decoded, so the heap holds no more than the result.
+ * <p>
+ * Prefix and suffix end on whole characters and the context is counted in chars, so the
+ * result is the one {@code FinalComparisonCompactor} gives for the decoded contents, except
+ * that a surrogate pair is never split between context and delta.
+ * <p>
+ * So that the message stays small, a delta, or the whole content when both inputs are
+ * equal, that is longer than {@link #MAX_SHOWN_BYTES} keeps only its first and last
+ * {@code MAX_SHOWN_BYTES / 2} bytes, joined by the marker {@code <<N bytes elided>>}.
+ */
+public class StreamingComparisonCompactor {
+    public static final int MAX_SHOWN_BYTES = 64 * 1024;
+    private static final String ELLIPSIS = "...";
+    private static final String DELTA_END = "]";
+    private static final String DELTA_START = "[";
+    private static final String ELISION_START = "<<";
+    private static final String ELISION_END = " bytes elided>>";
+    // a char never takes more than three UTF-8 bytes, plus one partial sequence at the edge
+    private static final int MAX_BYTES_PER_CHAR = 4;
+
+    private final int contextLength;
+    private final Path expectedFile;
+    private final Path actualFile;
+    private final InputStream expectedStream;
+    private final InputStream actualStream;
+    private MappedContent expected;
+    private MappedContent actual;
+    private long prefixLength;
+    private long suffixLength;
+
+    public StreamingComparisonCompactor(int contextLength, Path expected, Path actual) {
+        this(contextLength, expected, actual, null, null);
+    }
+
+    /**
+     * The streams are read to the end, but not closed.
+     */
+    public StreamingComparisonCompactor(int contextLength, InputStream expected, InputStream actual) {
+        this(contextLength, null, null, expected, actual);
+    }
+
+    private StreamingComparisonCompactor(int contextLength, Path expectedFile, Path actualFile,
+                                         InputStream expectedStream, InputStream actualStream) {
+        this.contextLength = contextLength;
+        this.expectedFile = expectedFile;
+        this.actualFile = actualFile;
+        this.expectedStream = expectedStream;
+        this.actualStream = actualStream;
+    }
+
+    public String formatCompactedComparison(String message) throws IOException {
+        if (expectedFile != null) {
+            return formatCompactedComparison(message, expectedFile, actualFile);
+        }
+        Path expectedCopy = copyToTemporaryFile(expectedStream);
+        try {
+            Path actualCopy = copyToTemporaryFile(actualStream);
+            try {
+                return formatCompactedComparison(message, expectedCopy, actualCopy);
+            } finally {
+                Files.delete(actualCopy);
+            }
+        } finally {
+            Files.delete(expectedCopy);
+        }
+    }
+
+    private static Path copyToTemporaryFile(InputStream stream) throws IOException {
+        Path copy = Files.createTempFile("comparison", ".tmp");
+        try {
+            Files.copy(stream, copy, StandardCopyOption.REPLACE_EXISTING);
+            return copy;
+        } catch (IOException e) {
+            Files.delete(copy);
+            throw e;
+        }
+    }
+
+    private String formatCompactedComparison(String message, Path expectedFile, Path actualFile)
+            throws IOException {
+        try (MappedContent expected = new MappedContent(expectedFile);
+             MappedContent actual = new MappedContent(actualFile)) {
+            this.expected = expected;
+            this.actual = actual;
+            findCommonPrefixAndSuffix();
+            if (isSame()) {
+                return Assert.format(message, shown(expected, 0, expected.size()), shown(actual, 0, actual.size()));
+            }
+            return Assert.format(message, compact(expected), compact(actual));
+        } finally {
+            this.expected = null;
+            this.actual = null;
+        }
+    }
+
+    private boolean isSame() {
+        return expected.size() == actual.size() && prefixLength == expected.size();
+    }
+
+    private void findCommonPrefixAndSuffix() throws IOException {
+        findCommonPrefix();
+        suffixLength = MappedAffixes.suffixLength(expected, actual, longestSuffixNotOverlappingPrefix());
+        while (!expected.isCharBoundary(expected.size() - suffixLength)) {
+            suffixLength--;
+        }
+    }
+
+    private long longestSuffixNotOverlappingPrefix() {
+        return Math.min(expected.size(), actual.size()) - prefixLength;
+    }
+
+    private void findCommonPrefix() throws IOException {
+        prefixLength = MappedAffixes.prefixLength(expected, actual);
+        while (!expected.isCharBoundary(prefixLength) || !actual.isCharBoundary(prefixLength)) {
+            prefixLength--;
+        }
+    }
+
+    private String compact(MappedContent content) throws IOException {
+        String startingContext = startingContext();
+        String endingContext = endingContext();
+        return startingEllipsis(startingContext) +
+                lastChars(startingContext) +
+                DELTA_START +
+                delta(content) +
+                DELTA_END +
+                firstChars(endingContext) +
+                endingEllipsis(endingContext);
+    }
+
+    /**
+     * The text before the delta that can hold the last {@code contextLength} chars and one more.
+     */
+    private String startingContext() throws IOException {
+        long contextStart = Math.max(0, prefixLength - maxContextBytes());
+        while (!expected.isCharBoundary(contextStart)) {
+            contextStart++;
+        }
+        return expected.decode(contextStart, prefixLength);
+    }
+
+    private String startingEllipsis(String startingContext) {
+        return startingContext.length() > contextLength ? ELLIPSIS : "";
+    }
+
+    private String lastChars(String startingContext) {
+        return startingContext.substring(Math.max(0, startingContext.length() - contextLength));
+    }
+
+    private String delta(MappedContent content) throws IOException {
+        return shown(content, prefixLength, content.size() - suffixLength);
+    }
+
+    /**
+     * The text of {@code [start..end)}, with all but its ends elided when it is over {@link #MAX_SHOWN_BYTES}.
+     */
+    private static String shown(MappedContent content, long start, long end) throws IOException {
+        if (end - start <= MAX_SHOWN_BYTES) {
+            return content.decode(start, end);
+        }
+        long headEnd = start + MAX_SHOWN_BYTES / 2;
+        while (!content.isCharBoundary(headEnd)) {
+            headEnd--;
+        }
+        long tailStart = end - MAX_SHOWN_BYTES / 2;
+        while (!content.isCharBoundary(tailStart)) {
+            tailStart++;
+        }
+        return content.decode(start, headEnd) +
+                ELISION_START + (tailStart - headEnd) + ELISION_END +
+                content.decode(tailStart, end);
+    }
+
+    private String endingContext() throws IOException {
+        long contextStart = expected.size() - suffixLength;
+        long contextEnd = Math.min(expected.size(), contextStart + maxContextBytes());
+        while (!expected.isCharBoundary(contextEnd)) {
+            contextEnd--;
+        }
+        return expected.decode(contextStart, contextEnd);
+    }
+
+    private String firstChars(String endingContext) {
+        return endingContext.substring(0, Math.min(endingContext.length(), contextLength));
+    }
+
+    private String endingEllipsis(String endingContext) {
+        return endingContext.length() > contextLength ? ELLIPSIS : "";
+    }
+
+    private long maxContextBytes() {
+        return (contextLength + 1L) * MAX_BYTES_PER_CHAR;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.args;
+
+import args.finalVersion.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ArgKeyTest {
+    private static final String SCHEMA = "l,p#,r##,d*,f[*],n[#],s[#L],w[##]";
+
+    @Test
+    public void keys_ReadEveryArgumentType() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile(SCHEMA);
+        ParsedArgs args = schema.parse(new String[]{
+                "-l", "-p", "42", "-r", "0.5", "-d", "/tmp", "-n", "1,2", "-s", "8g", "-w", "0.25", "-f", "a", "b"});
+
+        assertTrue(args.getBoolean(schema.booleanKey('l')));
+        assertEquals(42, args.getInt(schema.intKey('p')));
+        assertEquals(0.5, args.getDouble(schema.doubleKey('r')), .001);
+        assertEquals("/tmp", args.get(schema.stringKey('d')));
+        assertEquals(List.of("a", "b"), args.get(schema.stringListKey('f')));
+        assertArrayEquals(new int[]{1, 2}, args.get(schema.intArrayKey('n')));
+        assertArrayEquals(new long[]{8L << 30}, args.get(schema.longArrayKey('s')));
+        assertArrayEquals(new double[]{0.25}, args.get(schema.doubleArrayKey('w')), .001);
+        assertEquals(Integer.valueOf(42), args.get(schema.intKey('p')));
+    }
+
+    @Test
+    public void keys_ReportAbsentArgumentsLikeTheCharGetters() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile(SCHEMA);
+        ParsedArgs args = schema.parse(new String[0]);
+
+        assertFalse(args.has(schema.intKey('p')));
+        assertEquals(0, args.getInt(schema.intKey('p')));
+        assertEquals("", args.get(schema.stringKey('d')));
+        assertEquals(0, args.get(schema.intArrayKey('n')).length);
+    }
+
+    @Test
+    public void keys_ConvertLazilyParsedValues() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile(SCHEMA);
+
+        ParsedArgs args = schema.parseLazily(new String[]{"-p", "0x10"});
+
+        assertEquals(16, args.getInt(schema.intKey('p')));
+    }
+
+    @Test
+    public void keys_WorkWithReusableArgsAndArgs() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile(SCHEMA);
+        IntArgKey port = schema.intKey('p');
+
+        assertEquals(7, schema.reusableArgs().parse("-p 7").getInt(port));
+        assertEquals(8, new Args(schema, new String[]{"-p", "8"}).getInt(port));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void key_OfTheWrongTypeIsRejectedWhenMade() throws Exception {
+        ArgsSchema.compile(SCHEMA).intKey('d');
+    }
+
+    @Test
+    public void keys_OutliveTheirSchemaInTheCache() throws Exception {
+        IntArgKey port = ArgsSchema.compile("p#").intKey('p');
+        for (int i = 0; i < 100; i++) {
+            ArgsSchema.compile("p#,x|n" + i);
+        }
+
+        assertEquals(9, new Args("p#", new String[]{"-p", "9"}).getInt(port));
+        assertEquals(9, new ArgsSchema("p#").parse(new String[]{"-p", "9"}).getInt(port));
+    }
+
+    @Test
+    public void compile_HandsEveryThreadTheSameInstance() throws Exception {
+        String definition = "q#,x|n" + System.nanoTime();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ArgsSchema>> compiled = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                compiled.add(threads.submit(() -> ArgsSchema.compile(definition)));
+            }
+            for (Future<ArgsSchema> schema : compiled) {
+                assertSame(compiled.get(0).get(), schema.get());
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void key_FromAnotherSchemaIsRejected() throws Exception {
+        IntArgKey other = ArgsSchema.compile("p#").intKey('p');
+
+        ArgsSchema.compile(SCHEMA).parse(new String[]{"-p", "1"}).getInt(other);
+    }
+}
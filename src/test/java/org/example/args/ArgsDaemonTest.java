@@ -0,0 +1,125 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.daemon.ArgsDaemon;
+import args.finalVersion.daemon.ArgsDaemonClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ArgsDaemonTest {
+    private ArgsDaemon daemon;
+
+    @Before
+    public void startDaemon() throws Exception {
+        daemon = ArgsDaemon.start(ArgsSchema.compile("l|logging,p#,d*,n[#]"), 0);
+    }
+
+    @After
+    public void stopDaemon() throws Exception {
+        daemon.close();
+    }
+
+    @Test
+    public void daemon_RepliesWithParsedValues() throws Exception {
+        try (ArgsDaemonClient client = new ArgsDaemonClient(daemon.port())) {
+            assertEquals("OK\t5\t-l=true\t-p=8080\t-d=my\\tdir\\, it's",
+                    client.parse("--logging", "-p", "8080", "-d", "my\tdir, it's", "file"));
+            assertEquals("OK\t2\t-n=1,2,3", client.parse("-n", "1,2,3"));
+        }
+    }
+
+    @Test
+    public void daemon_RepliesWithErrorMessages() throws Exception {
+        try (ArgsDaemonClient client = new ArgsDaemonClient(daemon.port())) {
+            assertEquals("ERROR\tINVALID_INTEGER\tArgument -p expects an integer but was 'http'.",
+                    client.parse("-p", "http"));
+            assertEquals("ERROR\tUNEXPECTED_ARGUMENT\tArgument -x unexpected.", client.parse("-x"));
+        }
+    }
+
+    @Test
+    public void daemon_NeverReadsArgumentFiles() throws Exception {
+        try (ArgsDaemon lists = ArgsDaemon.start(ArgsSchema.compile("f[*]"), 0);
+             ArgsDaemonClient client = new ArgsDaemonClient(lists.port())) {
+            assertEquals("OK\t2\t-f=@/etc/hostname", client.parse("-f", "@/etc/hostname"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void daemon_RefusesSchemasThatReadArgumentFiles() throws Exception {
+        ArgsDaemon.start(ArgsSchema.compile("f[@*]"), 0).close();
+    }
+
+    @Test
+    public void daemon_ClosesConnectionsOverTheClientLimit() throws Exception {
+        try (ArgsDaemon single = ArgsDaemon.start(ArgsSchema.compile("p#"), 0, 1);
+             ArgsDaemonClient first = new ArgsDaemonClient(single.port());
+             ArgsDaemonClient second = new ArgsDaemonClient(single.port())) {
+            assertEquals("OK\t2\t-p=1", first.parse("-p", "1"));
+            try {
+                second.parse("-p", "2");
+                fail();
+            } catch (IOException e) {
+                // closed by the daemon
+            }
+        }
+    }
+
+    @Test
+    public void daemon_AnswersPipelinedRequestsInOrder() throws Exception {
+        try (ArgsDaemonClient first = new ArgsDaemonClient(daemon.port());
+             ArgsDaemonClient second = new ArgsDaemonClient(daemon.port())) {
+            for (int i = 0; i < 200; i++) {
+                first.send("-p", String.valueOf(i));
+                second.send("-lp", String.valueOf(-i));
+            }
+            first.flush();
+            second.flush();
+            for (int i = 0; i < 200; i++) {
+                assertEquals("OK\t2\t-p=" + i, first.receive());
+                assertEquals("OK\t2\t-l=true\t-p=" + -i, second.receive());
+            }
+        }
+    }
+
+    @Test
+    public void daemon_RefusesOverlongRequestsAndCloses() throws Exception {
+        char[] argument = new char[ArgsDaemon.MAX_REQUEST_LENGTH + 1];
+        Arrays.fill(argument, 'x');
+        try (ArgsDaemonClient client = new ArgsDaemonClient(daemon.port())) {
+            assertEquals("ERROR\tMALFORMED_COMMAND_LINE\tMalformed command line: request longer than "
+                    + ArgsDaemon.MAX_REQUEST_LENGTH + " chars.", client.parse(new String(argument)));
+            try {
+                client.receive();
+                fail();
+            } catch (EOFException e) {
+                // closed by the daemon
+            }
+        }
+    }
+
+    @Test
+    public void daemon_ClosesIdleConnectionsAndFreesTheirSlot() throws Exception {
+        try (ArgsDaemon single = ArgsDaemon.start(ArgsSchema.compile("p#"), 0, 1, 100);
+             ArgsDaemonClient idle = new ArgsDaemonClient(single.port())) {
+            try {
+                idle.receive();
+                fail();
+            } catch (EOFException e) {
+                // closed by the daemon
+            }
+            Thread.sleep(200);
+            try (ArgsDaemonClient next = new ArgsDaemonClient(single.port())) {
+                assertEquals("OK\t2\t-p=1", next.parse("-p", "1"));
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.exception.ArgsErrors;
+import args.finalVersion.exception.ArgsException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.*;
+import static org.junit.Assert.*;
+
+public class ArgsExceptionTest {
+
+    @After
+    public void stopCaching() {
+        ArgsException.setCaching(false);
+    }
+
+    @Test
+    public void messages_RenderFromTheirTemplates() {
+        assertEquals("Argument -x unexpected.", ArgsException.errorMessage(UNEXPECTED_ARGUMENT, 'x', null));
+        assertEquals("Argument -p expects an integer but was 'abc'.",
+                ArgsException.errorMessage(INVALID_INTEGER, 'p', "abc"));
+        assertEquals("'f~' is not a valid argument format.",
+                ArgsException.errorMessage(INVALID_ARGUMENT_FORMAT, 'f', "f~"));
+        assertEquals("Could not find a command.", ArgsException.errorMessage(MISSING_COMMAND, '\0', null));
+    }
+
+    @Test
+    public void message_IsAppendedToTheCallersBuffer() throws Exception {
+        ArgsException e = new ArgsException(INVALID_DOUBLE, 'r', "half");
+        StringWriter writer = new StringWriter();
+
+        e.appendMessageTo(writer.append("error: "));
+        StringBuilder builder = e.appendMessageTo(new StringBuilder("error: "));
+
+        assertEquals("error: Argument -r expects a double but was 'half'.", writer.toString());
+        assertEquals(writer.toString(), builder.toString());
+        assertEquals("Argument -r expects a double but was 'half'.", e.getMessage());
+    }
+
+    @Test
+    public void cached_IsSharedStacklessAndImmutable() {
+        ArgsException.setCaching(true);
+        ArgsException e = ArgsException.cached(UNEXPECTED_ARGUMENT, 'x');
+
+        assertSame(e, ArgsException.cached(UNEXPECTED_ARGUMENT, 'x'));
+        assertNotSame(e, ArgsException.cached(UNEXPECTED_ARGUMENT, 'y'));
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals("Argument -x unexpected.", e.getMessage());
+        try {
+            e.setErrorArgumentId('y');
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        assertEquals("Argument -y unexpected.", e.withErrorParameter("p").withErrorArgumentId('y').getMessage());
+        assertEquals('x', e.getErrorArgumentId());
+    }
+
+    @Test
+    public void cached_IsAFreshExceptionUnlessCachingIsOn() {
+        ArgsException e = ArgsException.cached(UNEXPECTED_ARGUMENT, 'x');
+
+        assertFalse(ArgsException.isCaching());
+        assertNotSame(e, ArgsException.cached(UNEXPECTED_ARGUMENT, 'x'));
+        assertTrue(e.getStackTrace().length > 0);
+    }
+
+    @Test
+    public void parseErrors_CanBeChangedAndRethrownByDefault() throws Exception {
+        ArgsException e = parseError(ArgsSchema.compile("l,p#"), "-x");
+
+        e.setErrorArgumentId('q');
+        e.setErrorCode(UNEXPECTED_ARGUMENT);
+        e.setErrorParameter(null);
+
+        assertEquals("Argument -q unexpected.", e.getMessage());
+        assertNotSame(e, parseError(ArgsSchema.compile("l,p#"), "-x"));
+        assertTrue(e.getStackTrace().length > 0);
+    }
+
+    @Test
+    public void cached_IsOnlyForParameterlessMessages() {
+        try {
+            ArgsException.cached(INVALID_INTEGER, 'p');
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void withErrorArgumentId_SwapsCachedInstances() {
+        ArgsException.setCaching(true);
+        ArgsException missing = ArgsException.cached(MISSING_INTEGER, '\0');
+        ArgsException invalid = ArgsException.stackless(INVALID_INTEGER, "abc");
+
+        assertSame(ArgsException.cached(MISSING_INTEGER, 'p'), missing.withErrorArgumentId('p'));
+        assertSame(invalid, invalid.withErrorArgumentId('p'));
+        assertEquals('p', invalid.getErrorArgumentId());
+    }
+
+    @Test
+    public void parse_RejectsUnknownArgumentsWithCachedExceptions() throws Exception {
+        ArgsException.setCaching(true);
+        ArgsSchema schema = ArgsSchema.compile("l,p#");
+        ArgsException first = parseError(schema, "-x");
+        ArgsException missing = parseError(schema, "-p");
+
+        assertSame(first, parseError(schema, "-x"));
+        assertSame(missing, parseError(schema, "-p"));
+        assertEquals("Could not find integer parameter for -p.", missing.errorMessage());
+    }
+
+    @Test
+    public void validationErrors_AppendTheirMessages() throws Exception {
+        ArgsErrors errors = ArgsSchema.compile("l,p#").validate(new String[]{"-x", "-p", "q"});
+
+        StringBuilder messages = new StringBuilder();
+        for (int i = 0; i < errors.size(); i++) {
+            errors.appendMessageTo(i, messages).append('\n');
+        }
+
+        assertEquals("Argument -x unexpected.\nArgument -p expects an integer but was 'q'.\n", messages.toString());
+    }
+
+    private static ArgsException parseError(ArgsSchema schema, String... args) {
+        try {
+            schema.parse(args);
+            throw new AssertionError("no error");
+        } catch (ArgsException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.exception.ArgsException;
+import args.finalVersion.exception.ArgsException.ErrorCode;
+import args.finalVersion.monitoring.ArgsMetrics;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ArgsMonitoringTest {
+
+    @After
+    public void tearDown() {
+        ArgsMetrics.disable();
+        ArgsMetrics.reset();
+    }
+
+    @Test
+    public void metrics_CountOutcomesAndLatencyWhenEnabled() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile("l,p#");
+        ArgsMetrics.reset();
+        ArgsMetrics.enable();
+
+        for (int i = 0; i < 10; i++) {
+            schema.parse(new String[]{"-l", "-p", "1"});
+        }
+        parseIgnoringErrors(schema, "-p", "one");
+        parseIgnoringErrors(schema, "-x");
+
+        ArgsMetrics.Snapshot snapshot = ArgsMetrics.snapshot();
+        assertEquals(12, snapshot.parseCount());
+        assertEquals(10, snapshot.count(ErrorCode.OK));
+        assertEquals(1, snapshot.count(ErrorCode.INVALID_INTEGER));
+        assertEquals(1, snapshot.count(ErrorCode.UNEXPECTED_ARGUMENT));
+        assertTrue(snapshot.p50Nanos() > 0);
+        assertTrue(snapshot.p99Nanos() >= snapshot.p50Nanos());
+    }
+
+    @Test
+    public void metrics_RecordNothingWhenDisabled() throws Exception {
+        ArgsMetrics.reset();
+        ArgsSchema.compile("l").parse(new String[]{"-l"});
+
+        assertEquals(0, ArgsMetrics.snapshot().parseCount());
+    }
+
+    @Test
+    public void flightRecorder_ReceivesParseEvents() throws Exception {
+        Path dump = Files.createTempFile("args", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("args.Parse");
+            recording.enable("args.SchemaCompile");
+            recording.start();
+            new ArgsSchema("v,n#").parse(new String[]{"-v", "-n", "3"});
+            parseIgnoringErrors(new ArgsSchema("n#"), "-n", "three");
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        List<String> parses = events.stream()
+                .filter(e -> e.getEventType().getName().equals("args.Parse"))
+                .map(e -> e.getInt("argumentCount") + ":" + e.getString("errorCode"))
+                .collect(Collectors.toList());
+        assertTrue(parses.contains("3:OK"));
+        assertTrue(parses.contains("2:INVALID_INTEGER"));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("args.SchemaCompile")
+                && "v,n#".equals(e.getString("schema"))));
+        Files.delete(dump);
+    }
+
+    private static void parseIgnoringErrors(ArgsSchema schema, String... args) {
+        try {
+            schema.parse(args);
+        } catch (ArgsException ignored) {
+        }
+    }
+}
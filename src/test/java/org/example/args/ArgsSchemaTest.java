@@ -0,0 +1,184 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.exception.ArgsErrors;
+import args.finalVersion.exception.ArgsException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ArgsSchemaTest {
+
+    @Test
+    public void compile_ReturnsCachedSchemaForSameString() throws Exception {
+        assertSame(ArgsSchema.compile("l,p#,d*"), ArgsSchema.compile("l,p#,d*"));
+    }
+
+    @Test
+    public void compile_KeepsRecentlyUsedSchemasAndDropsOldOnes() throws Exception {
+        ArgsSchema used = ArgsSchema.compile("u,p#");
+        ArgsSchema unused = ArgsSchema.compile("v,p#");
+        for (int i = 0; i < 200; i++) {
+            ArgsSchema.compile("q|evict" + i + "#");
+            assertSame(used, ArgsSchema.compile("u,p#"));
+        }
+
+        assertNotSame(unused, ArgsSchema.compile("v,p#"));
+    }
+
+    @Test
+    public void compiledSchema_ParsesManyArgumentArrays() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile("l,p#,d*");
+
+        ParsedArgs first = schema.parse(new String[]{"-l", "-p", "42", "-d", "/tmp"});
+        ParsedArgs second = schema.parse(new String[]{"-p", "7"});
+
+        assertTrue(first.getBoolean('l'));
+        assertEquals(42, first.getInt('p'));
+        assertEquals("/tmp", first.getString('d'));
+        assertFalse(second.getBoolean('l'));
+        assertEquals(7, second.getInt('p'));
+        assertFalse(second.has('d'));
+    }
+
+    @Test
+    public void invalidSchema_IsRejectedAtCompileTime() {
+        try {
+            ArgsSchema.compile("f~");
+            fail();
+        } catch (ArgsException e) {
+            assertEquals(ArgsException.ErrorCode.INVALID_ARGUMENT_FORMAT, e.getErrorCode());
+            assertEquals('f', e.getErrorArgumentId());
+        }
+    }
+
+    @Test
+    public void undefinedOrNonAsciiIds_ReadAsAbsentDefaults() throws Exception {
+        ParsedArgs parsed = ArgsSchema.compile("x,n#,r##").parse(new String[]{"-x", "-n", "3"});
+
+        assertTrue(parsed.has('x'));
+        assertFalse(parsed.has('r'));
+        assertFalse(parsed.has('q'));
+        assertFalse(parsed.has('\u00e9'));
+        assertEquals(0, parsed.getInt('q'));
+        assertEquals(0.0, parsed.getDouble('r'), 0.0);
+        assertEquals("", parsed.getString('\u00e9'));
+    }
+
+    @Test
+    public void nonAsciiSchemaId_IsRejected() {
+        try {
+            ArgsSchema.compile("\u00e9#");
+            fail();
+        } catch (ArgsException e) {
+            assertEquals(ArgsException.ErrorCode.INVALID_ARGUMENT_NAME, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void validate_CollectsEveryErrorInOnePass() throws Exception {
+        ArgsErrors errors = ArgsSchema.compile("l,p#,r##,d*")
+                .validate(new String[]{"-lq", "-p", "eight", "-r", "fast", "-d"});
+
+        assertEquals(4, errors.size());
+        assertEquals(ArgsException.ErrorCode.UNEXPECTED_ARGUMENT, errors.errorCode(0));
+        assertEquals('q', errors.errorArgumentId(0));
+        assertEquals(ArgsException.ErrorCode.INVALID_INTEGER, errors.errorCode(1));
+        assertEquals("eight", errors.errorParameter(1));
+        assertEquals("Argument -r expects a double but was 'fast'.", errors.errorMessage(2));
+        assertEquals("Could not find string parameter for -d.", errors.errorMessage(3));
+    }
+
+    @Test
+    public void validate_ValidArgumentsHaveNoErrors() throws Exception {
+        assertTrue(ArgsSchema.compile("l,p#").validate(new String[]{"-l", "-p", "1"}).isEmpty());
+    }
+
+    @Test
+    public void parseLazily_ConvertsNumbersOnFirstRead() throws Exception {
+        ParsedArgs parsed = ArgsSchema.compile("p#,r##,q#").parseLazily(new String[]{"-p", "64k", "-r", "2.5", "-q", "bad"});
+
+        assertEquals(65536, parsed.getInt('p'));
+        assertEquals(65536, parsed.getInt('p'));
+        assertEquals(2.5, parsed.getDouble('r'), 0.0);
+        assertTrue(parsed.has('q'));
+        try {
+            parsed.getInt('q');
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Argument -q expects an integer but was 'bad'.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void numbers_AcceptWhatIntegerAndDoubleParsingAcceptedAndMore() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile("p#,d##");
+
+        assertEquals(3.5, schema.parse(new String[]{"-d", " 3.5"}).getDouble('d'), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, schema.parse(new String[]{"-d", "1e400"}).getDouble('d'), 0.0);
+        assertEquals(10, schema.parse(new String[]{"-p", "010"}).getInt('p'));
+        assertEquals(16, schema.parse(new String[]{"-p", "0x10"}).getInt('p'));
+        assertEquals(1000, schema.parse(new String[]{"-p", "1_000"}).getInt('p'));
+        assertEquals(2048, schema.parse(new String[]{"-p", "2k"}).getInt('p'));
+        assertEquals(ArgsException.ErrorCode.INVALID_INTEGER,
+                schema.validate(new String[]{"-p", " 3"}).errorCode(0));
+    }
+
+    @Test
+    public void parseLazily_StillReportsMissingParameters() throws Exception {
+        try {
+            ArgsSchema.compile("p#").parseLazily(new String[]{"-p"});
+            fail();
+        } catch (ArgsException e) {
+            assertEquals(ArgsException.ErrorCode.MISSING_INTEGER, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void numericLists_AcceptCommaSeparatedAndRepeatedFlags() throws Exception {
+        ParsedArgs parsed = ArgsSchema.compile("s[#],w[##],o[#L]")
+                .parse(new String[]{"-s", "1,2,3", "-w", "0.5,1e-3", "-s", "64k", "-o", "8g"});
+
+        assertArrayEquals(new int[]{1, 2, 3, 65536}, parsed.getIntArray('s'));
+        assertArrayEquals(new double[]{0.5, 0.001}, parsed.getDoubleArray('w'), 0.0);
+        assertArrayEquals(new long[]{8L << 30}, parsed.getLongArray('o'));
+        assertArrayEquals(new int[0], parsed.getIntArray('w'));
+    }
+
+    @Test
+    public void numericLists_ReportTheBadElement() throws Exception {
+        try {
+            ArgsSchema.compile("s[#]").parse(new String[]{"-s", "1,x2,3"});
+            fail();
+        } catch (ArgsException e) {
+            assertEquals(ArgsException.ErrorCode.INVALID_INTEGER, e.getErrorCode());
+            assertEquals("x2", e.getErrorParameter());
+        }
+    }
+
+    @Test
+    public void sharedSchema_ParsesConcurrentlyWithoutInterference() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile("l,p#,d*");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int port = i;
+                results.add(pool.submit(() -> {
+                    ParsedArgs parsed = schema.parse(new String[]{"-p", String.valueOf(port), "-d", "dir" + port});
+                    return parsed.getInt('p') == port && parsed.getString('d').equals("dir" + port);
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.bulk.BulkArgsParser;
+import args.finalVersion.exception.ArgsException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ArgumentFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void argumentFile_BacksStringArrayLazily() throws Exception {
+        Path paths = folder.newFile("paths.txt").toPath();
+        Files.write(paths, "/a/b c.txt\r\n\n/d/é.txt\n/e".getBytes(StandardCharsets.UTF_8));
+
+        ParsedArgs parsed = ArgsSchema.compile("f[@*]").parse(new String[]{"-f", "first", "@" + paths, "@@last"});
+
+        List<String> files = parsed.getStringList('f');
+        assertEquals(5, files.size());
+        assertEquals(Arrays.asList("first", "/a/b c.txt", "/d/é.txt", "/e", "@last"), files);
+        assertArrayEquals(files.toArray(), parsed.getStringArray('f'));
+    }
+
+    @Test
+    public void stringStream_SplitsLargeArgumentFilesForParallelWork() throws Exception {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            contents.append("/data/shard-").append(i).append('\n');
+        }
+        Path paths = folder.newFile("shards.txt").toPath();
+        Files.write(paths, contents.toString().getBytes(StandardCharsets.UTF_8));
+
+        ParsedArgs parsed = ArgsSchema.compile("f[@*]").parse(new String[]{"-f", "@" + paths, "extra"});
+
+        assertNotNull(parsed.getStringList('f').spliterator().trySplit());
+        assertEquals(100_001, parsed.getStringStream('f').parallel().filter(s -> !s.isEmpty()).count());
+        assertEquals("/data/shard-99999", parsed.getStringStream('f').skip(99_999).findFirst().orElse(null));
+    }
+
+    @Test
+    public void plainStringArrays_TakeAtTokensLiterally() throws Exception {
+        Path paths = folder.newFile("paths.txt").toPath();
+        Files.write(paths, "/secret".getBytes(StandardCharsets.UTF_8));
+
+        ArgsSchema schema = ArgsSchema.compile("f[*]");
+        ParsedArgs parsed = schema.parse(new String[]{"-f", "@" + paths, "@@x"});
+
+        assertFalse(schema.expandsArgumentFiles());
+        assertEquals(Arrays.asList("@" + paths, "@@x"), parsed.getStringList('f'));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bulkParser_RefusesSchemasThatReadArgumentFiles() throws Exception {
+        new BulkArgsParser(ArgsSchema.compile("f[@*]"));
+    }
+
+    @Test
+    public void missingArgumentFile_IsReported() throws Exception {
+        try {
+            ArgsSchema.compile("f[@*]").parse(new String[]{"-f", "@/no/such/file"});
+            fail();
+        } catch (ArgsException e) {
+            assertEquals(ArgsException.ErrorCode.INVALID_ARGUMENT_FILE, e.getErrorCode());
+            assertEquals("Could not read argument file '/no/such/file' for -f.", e.errorMessage());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.CommandLine;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.bulk.ArgsRecordHandler;
+import args.finalVersion.bulk.BulkArgsParser;
+import args.finalVersion.exception.ArgsException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.MALFORMED_COMMAND_LINE;
+import static org.junit.Assert.*;
+
+public class BulkArgsParserTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void emitsResultsAndErrorsInFileOrder() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            lines.add(i % 7 == 0 ? "-p  nope" : "-l -p " + i);
+        }
+        Path log = folder.newFile("argv.log").toPath();
+        Files.write(log, lines, StandardCharsets.UTF_8);
+        List<String> seen = new ArrayList<>();
+
+        new BulkArgsParser(ArgsSchema.compile("l,p#"), new ForkJoinPool(4), 300).parse(log, new ArgsRecordHandler() {
+            public void onParsed(long lineNumber, ParsedArgs args) {
+                seen.add(lineNumber + ":" + args.getInt('p'));
+            }
+
+            public void onError(long lineNumber, ArgsException error) {
+                seen.add(lineNumber + ":" + error.getErrorCode());
+            }
+        });
+
+        assertEquals(5000, seen.size());
+        for (int i = 0; i < 5000; i++) {
+            String expected = (i + 1) + ":" + (i % 7 == 0 ? "INVALID_INTEGER" : String.valueOf(i));
+            assertEquals(expected, seen.get(i));
+        }
+    }
+
+    @Test
+    public void argvWrittenWithJoin_ReadsBackUnchanged() throws Exception {
+        String[] argv = {"-d", "/srv/my jobs", "-f", "it's", "", "a b", "tab\there", "back\\slash", "\"q\""};
+        Path log = log(CommandLine.join(argv), "-d 'unterminated");
+        List<Object> seen = new ArrayList<>();
+
+        parse(log, "d*,f[*]", 10, seen);
+
+        ParsedArgs args = (ParsedArgs) seen.get(0);
+        assertEquals("/srv/my jobs", args.getString('d'));
+        assertArrayEquals(new String[]{"it's", "", "a b", "tab\there", "back\\slash", "\"q\""},
+                args.getStringArray('f'));
+        assertEquals(MALFORMED_COMMAND_LINE, ((ArgsException) seen.get(1)).getErrorCode());
+    }
+
+    @Test
+    public void emptyFile_HasNoRecords() throws Exception {
+        List<Object> seen = new ArrayList<>();
+
+        parse(log(), "l,p#", 10, seen);
+
+        assertTrue(seen.isEmpty());
+    }
+
+    @Test
+    public void fileShorterThanOneBatch_IsParsedWhole() throws Exception {
+        List<Object> seen = new ArrayList<>();
+
+        parse(log("-p 1", "", "-l -p 3"), "l,p#", 10, seen);
+
+        assertEquals(3, seen.size());
+        assertEquals(1, ((ParsedArgs) seen.get(0)).getInt('p'));
+        assertFalse(((ParsedArgs) seen.get(1)).has('p'));
+        assertEquals(3, ((ParsedArgs) seen.get(2)).getInt('p'));
+    }
+
+    @Test
+    public void throwingHandler_EndsTheParse() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            lines.add("-p " + i);
+        }
+        Path log = log(lines.toArray(new String[0]));
+        List<Long> seen = new ArrayList<>();
+
+        try {
+            new BulkArgsParser(ArgsSchema.compile("p#"), new ForkJoinPool(2), 10).parse(log, new ArgsRecordHandler() {
+                public void onParsed(long lineNumber, ParsedArgs args) {
+                    if (lineNumber == 15) {
+                        throw new IllegalStateException("stop");
+                    }
+                    seen.add(lineNumber);
+                }
+
+                public void onError(long lineNumber, ArgsException error) {
+                    fail();
+                }
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("stop", e.getMessage());
+        }
+        assertEquals(14, seen.size());
+    }
+
+    private Path log(String... lines) throws Exception {
+        Path log = folder.newFile().toPath();
+        Files.write(log, List.of(lines), StandardCharsets.UTF_8);
+        return log;
+    }
+
+    private static void parse(Path log, String schema, int batchSize, List<Object> seen) throws Exception {
+        new BulkArgsParser(ArgsSchema.compile(schema), new ForkJoinPool(2), batchSize).parse(log, new ArgsRecordHandler() {
+            public void onParsed(long lineNumber, ParsedArgs args) {
+                assertEquals(seen.size() + 1, lineNumber);
+                seen.add(args);
+            }
+
+            public void onError(long lineNumber, ArgsException error) {
+                assertEquals(seen.size() + 1, lineNumber);
+                seen.add(error);
+            }
+        });
+    }
+}
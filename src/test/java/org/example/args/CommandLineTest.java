@@ -0,0 +1,127 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.CommandLine;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.ReusableArgs;
+import args.finalVersion.exception.ArgsException;
+import org.junit.Test;
+
+import java.nio.CharBuffer;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.INVALID_INTEGER;
+import static args.finalVersion.exception.ArgsException.ErrorCode.MALFORMED_COMMAND_LINE;
+import static org.junit.Assert.*;
+
+public class CommandLineTest {
+
+    @Test
+    public void tokenize_SplitsOnWhitespaceWithoutCopying() throws Exception {
+        String line = "  -l  -p 42\t-d /tmp ";
+        CommandLine tokens = new CommandLine().tokenize(line);
+
+        assertEquals(5, tokens.size());
+        assertSame(line, tokens.text(2));
+        assertEquals(9, tokens.start(2));
+        assertEquals("42", tokens.token(2));
+        assertEquals("/tmp", tokens.token(4));
+    }
+
+    @Test
+    public void tokenize_DecodesQuotesAndEscapes() throws Exception {
+        CommandLine tokens = new CommandLine().tokenize("'a b' \"say \\\"hi\\\"\" c\\ d pre'fix'ed '' \"\\n\"");
+
+        assertEquals(6, tokens.size());
+        assertEquals("a b", tokens.token(0));
+        assertEquals("say \"hi\"", tokens.token(1));
+        assertEquals("c d", tokens.token(2));
+        assertEquals("prefixed", tokens.token(3));
+        assertEquals("", tokens.token(4));
+        assertEquals("\\n", tokens.token(5));
+    }
+
+    @Test
+    public void join_QuotesTokensSoTheyTokenizeBackUnchanged() throws Exception {
+        String[] argv = {"-d", "my dir", "it's", "", "a\\b", "\"q\"", "tab\there", "plain"};
+
+        String line = CommandLine.join(argv);
+
+        assertEquals("-d 'my dir' 'it'\\''s' '' 'a\\b' '\"q\"' 'tab\there' plain", line);
+        assertArrayEquals(argv, new CommandLine().tokenize(line).tokens());
+    }
+
+    @Test
+    public void join_RefusesTokensThatWouldBreakTheLine() {
+        for (String token : new String[]{"two\nlines", "carriage\rreturn"}) {
+            try {
+                CommandLine.join("-d", token);
+                fail(token);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void tokenize_RejectsUnterminatedQuotesAndTrailingBackslash() {
+        for (String line : new String[]{"-d 'open", "-d \"open", "-d open\\"}) {
+            try {
+                new CommandLine().tokenize(line);
+                fail(line);
+            } catch (ArgsException e) {
+                assertEquals(MALFORMED_COMMAND_LINE, e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void reusableArgs_ParsesCommandLineDirectly() throws Exception {
+        ReusableArgs args = new ReusableArgs(ArgsSchema.compile("l,p#,d*,r##,n[#]"));
+
+        args.parse(CharBuffer.wrap("-lp 0x10 -d 'my dir' -r 2.5 -n 1,2 file.txt"));
+
+        assertTrue(args.getBoolean('l'));
+        assertEquals(16, args.getInt('p'));
+        assertEquals("my dir", args.getString('d'));
+        assertEquals(2.5, args.getDouble('r'), .001);
+        assertArrayEquals(new int[]{1, 2}, args.getIntArray('n'));
+        assertEquals("file.txt", args.commandLine().token(args.nextArgument()));
+    }
+
+    @Test
+    public void reusableArgs_ReadsStringValuesFromTheInputWhenFirstAsked() throws Exception {
+        ReusableArgs args = new ReusableArgs(ArgsSchema.compile("d*,e*"));
+        StringBuilder line = new StringBuilder("-d first -e other");
+
+        args.parse(line);
+        assertEquals("first", args.getString('d'));
+        line.replace(3, 8, "XXXXX").replace(12, 17, "YYYYY");
+
+        assertEquals("first", args.getString('d'));
+        assertEquals("YYYYY", args.getString('e'));
+    }
+
+    @Test
+    public void schemaParse_CopiesValuesOutOfTheCommandLine() throws Exception {
+        CommandLine line = new CommandLine();
+        ParsedArgs parsed = ArgsSchema.compile("l|log,p#,d*").parse(line.tokenize("--log -p 0x10 -d 'my dir' file.txt"));
+        line.tokenize("-d \"something else\"");
+
+        assertTrue(parsed.getBoolean('l'));
+        assertEquals(16, parsed.getInt('p'));
+        assertEquals("my dir", parsed.getString('d'));
+        assertEquals(5, parsed.nextArgument());
+    }
+
+    @Test
+    public void reusableArgs_ReportsBadValueFromCommandLine() throws Exception {
+        ReusableArgs args = new ReusableArgs(ArgsSchema.compile("p#"));
+        try {
+            args.parse("-p forty");
+            fail();
+        } catch (ArgsException e) {
+            assertEquals(INVALID_INTEGER, e.getErrorCode());
+            assertEquals('p', e.getErrorArgumentId());
+            assertEquals("forty", e.getErrorParameter());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.exception.ArgsException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GeneratedParserTest {
+
+    @Test
+    public void generatedParser_WritesValuesIntoFields() throws Exception {
+        ServerOptions options = ServerOptionsParser.parse(
+                new String[]{"-l", "-p", "9090", "-r", "0.25", "-d", "/srv", "-f", "a.txt", "b.txt"});
+
+        assertTrue(options.logging);
+        assertEquals(9090, options.port);
+        assertEquals(0.25, options.ratio, 0.0);
+        assertEquals("/srv", options.directory);
+        assertArrayEquals(new String[]{"a.txt", "b.txt"}, options.files);
+    }
+
+    @Test
+    public void generatedParser_KeepsFieldDefaultsForAbsentFlags() throws Exception {
+        ServerOptions options = ServerOptionsParser.parse(new String[]{"-l"});
+
+        assertEquals(8080, options.port);
+        assertEquals("", options.directory);
+    }
+
+    @Test
+    public void generatedParser_ReportsErrorsLikeArgs() throws Exception {
+        String[] args = {"-p", "eighty"};
+        try {
+            ServerOptionsParser.parse(args);
+            fail();
+        } catch (ArgsException generated) {
+            try {
+                ArgsSchema.compile(ServerOptionsParser.SCHEMA).parse(args);
+                fail();
+            } catch (ArgsException parsed) {
+                assertEquals(parsed.errorMessage(), generated.errorMessage());
+            }
+        }
+    }
+
+    @Test
+    public void generatedParser_AcceptsWhatItsSchemaAccepts() throws Exception {
+        String[][] accepted = {
+                {"-l", "--", "-p", "1"},
+                {"--"},
+                {"-"},
+                {"-f", "@missing.txt", "--"},
+        };
+        for (String[] args : accepted) {
+            ServerOptions options = ServerOptionsParser.parse(args);
+            ParsedArgs parsed = ArgsSchema.compile(ServerOptionsParser.SCHEMA).parse(args);
+
+            assertEquals(parsed.getBoolean('l'), options.logging);
+            assertEquals(parsed.has('p') ? parsed.getInt('p') : 8080, options.port);
+            assertArrayEquals(parsed.has('f') ? parsed.getStringArray('f') : new String[0], options.files);
+        }
+    }
+
+    @Test
+    public void generatedParser_RejectsWhatItsSchemaRejects() {
+        String[][] rejected = {
+                {"--port", "1"},
+                {"--port=1"},
+                {"-x"},
+                {"-r", "half"},
+                {"-p"},
+        };
+        for (String[] args : rejected) {
+            ArgsException generated = parseError(() -> ServerOptionsParser.parse(args));
+            ArgsException parsed = parseError(() -> ArgsSchema.compile(ServerOptionsParser.SCHEMA).parse(args));
+
+            assertEquals(parsed.errorMessage(), generated.errorMessage());
+        }
+    }
+
+    @Test
+    public void generatedSchema_MatchesAnnotatedFields() throws Exception {
+        ParsedArgs parsed = ArgsSchema.compile(ServerOptionsParser.SCHEMA)
+                .parse(new String[]{"-lp", "1", "-r", "2", "-d", "dir", "-f", "x"});
+
+        assertTrue(parsed.getBoolean('l'));
+        assertEquals(1, parsed.getInt('p'));
+        assertEquals(2.0, parsed.getDouble('r'), 0.0);
+        assertEquals("dir", parsed.getString('d'));
+        assertArrayEquals(new String[]{"x"}, parsed.getStringArray('f'));
+    }
+
+    private interface Parse {
+        void run() throws ArgsException;
+    }
+
+    private static ArgsException parseError(Parse parse) {
+        try {
+            parse.run();
+            throw new AssertionError("no error");
+        } catch (ArgsException e) {
+            return e;
+        }
+    }
+}
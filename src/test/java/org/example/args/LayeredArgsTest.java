@@ -0,0 +1,164 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.config.ConfigLayer;
+import args.finalVersion.config.EnvironmentLayer;
+import args.finalVersion.config.LayeredArgs;
+import args.finalVersion.config.PropertiesFileLayer;
+import args.finalVersion.exception.ArgsException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.INVALID_BOOLEAN;
+import static args.finalVersion.exception.ArgsException.ErrorCode.INVALID_INTEGER;
+import static org.junit.Assert.*;
+
+public class LayeredArgsTest {
+    private static final String SCHEMA = "l|logging,p|port#,d|dir*,n|numbers[#],f|files[*]";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void missingArguments_FallBackThroughTheLayersInOrder() throws Exception {
+        Path file = properties("port=8080", "dir=/from/file", "logging=true", "numbers=1,2");
+        EnvironmentLayer environment = new EnvironmentLayer("APP_", Map.of("APP_DIR", "/from/env", "APP_FILES", "a 'b c'"));
+
+        try (LayeredArgs layered = new LayeredArgs(ArgsSchema.compile(SCHEMA),
+                List.of(environment, new PropertiesFileLayer(file)))) {
+            ParsedArgs args = layered.parse(new String[]{"-p", "9090"});
+
+            assertEquals(9090, args.getInt('p'));
+            assertEquals("/from/env", args.getString('d'));
+            assertTrue(args.getBoolean('l'));
+            assertTrue(args.has('l'));
+            assertArrayEquals(new int[]{1, 2}, args.getIntArray('n'));
+            assertArrayEquals(new String[]{"a", "b c"}, args.getStringArray('f'));
+        }
+    }
+
+    @Test
+    public void changedFile_IsPickedUpByTheWatcher() throws Exception {
+        Path file = properties("port=8080");
+        try (LayeredArgs layered = new LayeredArgs(ArgsSchema.compile(SCHEMA), List.of(new PropertiesFileLayer(file)))) {
+            Files.writeString(file, "port=8081\n");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (layered.parse(new String[0]).getInt('p') != 8081 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertEquals(8081, layered.parse(new String[0]).getInt('p'));
+        }
+    }
+
+    @Test
+    public void invalidValue_KeepsThePreviousMerge() throws Exception {
+        Path file = properties("port=8080");
+        try (LayeredArgs layered = new LayeredArgs(ArgsSchema.compile(SCHEMA), List.of(new PropertiesFileLayer(file)))) {
+            replace(file, "port=http");
+            try {
+                layered.reload();
+                fail();
+            } catch (ArgsException e) {
+                assertEquals(INVALID_INTEGER, e.getErrorCode());
+                assertEquals('p', e.getErrorArgumentId());
+            }
+
+            assertEquals(8080, layered.parse(new String[0]).getInt('p'));
+        }
+    }
+
+    @Test
+    public void fileInAMissingDirectory_IsEmptyUntilItAppears() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("conf").resolve("app").resolve("args.properties");
+        try (LayeredArgs layered = new LayeredArgs(ArgsSchema.compile(SCHEMA), List.of(new PropertiesFileLayer(file)))) {
+            assertFalse(layered.parse(new String[0]).has('p'));
+
+            Files.createDirectories(file.getParent());
+            replace(file, "port=8082");
+
+            assertEquals(8082, awaitPort(layered, 8082));
+        }
+    }
+
+    @Test
+    public void watcher_SurvivesALayerThatThrows() throws Exception {
+        Path file = properties("port=8080");
+        PropertiesFileLayer properties = new PropertiesFileLayer(file);
+        AtomicInteger reloads = new AtomicInteger();
+        ConfigLayer failingOnce = new ConfigLayer() {
+            public String valueOf(String name) {
+                return properties.valueOf(name);
+            }
+
+            public Path file() {
+                return properties.file();
+            }
+
+            public void reload() throws IOException {
+                if (reloads.incrementAndGet() == 1) {
+                    throw new IllegalStateException("first reload fails");
+                }
+                properties.reload();
+            }
+        };
+        try (LayeredArgs layered = new LayeredArgs(ArgsSchema.compile(SCHEMA), List.of(failingOnce))) {
+            replace(file, "port=8081");
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (reloads.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            replace(file, "port=8083");
+
+            assertEquals(8083, awaitPort(layered, 8083));
+        }
+    }
+
+    @Test
+    public void environmentLayer_RefusesArgumentsSharingAVariable() throws Exception {
+        try {
+            new LayeredArgs(ArgsSchema.compile("p#,P#"), List.of(new EnvironmentLayer("APP_", Map.of())));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Arguments -p and -P both read APP_P from EnvironmentLayer", e.getMessage());
+        }
+    }
+
+    @Test
+    public void defaults_RejectBooleansOtherThanTrueOrFalse() throws Exception {
+        try {
+            ArgsSchema.compile(SCHEMA).defaults(Map.of('l', "yes"));
+            fail();
+        } catch (ArgsException e) {
+            assertEquals(INVALID_BOOLEAN, e.getErrorCode());
+        }
+    }
+
+    private static int awaitPort(LayeredArgs layered, int port) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (layered.parse(new String[0]).getInt('p') != port && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return layered.parse(new String[0]).getInt('p');
+    }
+
+    private void replace(Path file, String... lines) throws Exception {
+        Path copy = Files.write(folder.newFile().toPath(), List.of(lines));
+        Files.move(copy, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path properties(String... lines) throws Exception {
+        return Files.write(folder.getRoot().toPath().resolve("args.properties"), List.of(lines));
+    }
+}
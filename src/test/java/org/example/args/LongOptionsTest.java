@@ -0,0 +1,153 @@
+package org.example.args;
+
+import args.finalVersion.Args;
+import args.finalVersion.ArgsCommands;
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.ParsedCommand;
+import args.finalVersion.ReusableArgs;
+import args.finalVersion.exception.ArgsException;
+import args.finalVersion.exception.ArgsException.ErrorCode;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.*;
+import static org.junit.Assert.*;
+
+public class LongOptionsTest {
+    private static final String SCHEMA = "v|verbose,p|port#,d|dir*,r|ratio##,n|numbers[#],l|log,g|log-level#";
+
+    @Test
+    public void longNames_AcceptSeparateAndInlineValues() throws Exception {
+        ParsedArgs args = ArgsSchema.compile(SCHEMA).parse(
+                new String[]{"--verbose", "--port", "8080", "--dir=/tmp", "--ratio=0.5", "--numbers=1,2", "-l", "file"});
+
+        assertTrue(args.getBoolean('v'));
+        assertEquals(8080, args.getInt('p'));
+        assertEquals("/tmp", args.getString('d'));
+        assertEquals(0.5, args.getDouble('r'), .001);
+        assertArrayEquals(new int[]{1, 2}, args.getIntArray('n'));
+        assertTrue(args.getBoolean('l'));
+        assertEquals(7, args.nextArgument());
+    }
+
+    @Test
+    public void longNames_MatchUniquePrefixesAndPreferExactNames() throws Exception {
+        ParsedArgs args = ArgsSchema.compile(SCHEMA).parse(new String[]{"--verb", "--po=1", "--log", "--log-l", "3"});
+
+        assertTrue(args.getBoolean('v'));
+        assertEquals(1, args.getInt('p'));
+        assertTrue(args.getBoolean('l'));
+        assertEquals(3, args.getInt('g'));
+    }
+
+    @Test
+    public void longNames_ReportUnknownAmbiguousAndMisusedNames() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile(SCHEMA);
+
+        assertParseError(schema, UNEXPECTED_LONG_ARGUMENT, "--color");
+        assertParseError(schema, AMBIGUOUS_ARGUMENT, "--lo");
+        assertParseError(schema, UNEXPECTED_VALUE, "--verbose=yes");
+        assertParseError(schema, INVALID_INTEGER, "--port=http");
+    }
+
+    @Test
+    public void doubleDash_EndsTheArguments() throws Exception {
+        ParsedArgs args = ArgsSchema.compile(SCHEMA).parse(new String[]{"-v", "--", "-p", "1"});
+
+        assertTrue(args.getBoolean('v'));
+        assertFalse(args.has('p'));
+        assertEquals(2, args.nextArgument());
+    }
+
+    @Test
+    public void operandsContainingDashes_AreNotOptions() throws Exception {
+        Args args = new Args("l", new String[]{"a-b"});
+        ParsedArgs trailingDash = ArgsSchema.compile(SCHEMA).parse(new String[]{"-v", "x-", "-p", "1"});
+        ReusableArgs reusable = new ReusableArgs(ArgsSchema.compile(SCHEMA));
+        reusable.parse(new String[]{"a--b", "--", "-v"});
+
+        assertFalse(args.has('l'));
+        assertEquals(0, args.nextArgument());
+        assertTrue(trailingDash.getBoolean('v'));
+        assertFalse(trailingDash.has('p'));
+        assertEquals(1, trailingDash.nextArgument());
+        assertFalse(reusable.has('v'));
+        assertEquals(0, reusable.nextArgument());
+    }
+
+    @Test
+    public void invalidLongNames_AreRejectedAtCompileTime() {
+        for (String schema : new String[]{"p|#", "p|9lives#", "p|port#,q|port"}) {
+            try {
+                new ArgsSchema(schema);
+                fail(schema);
+            } catch (ArgsException e) {
+                assertEquals(INVALID_ARGUMENT_FORMAT, e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void reusableArgs_ResolvesLongNamesInCommandLines() throws Exception {
+        ReusableArgs args = new ReusableArgs(ArgsSchema.compile(SCHEMA));
+
+        args.parse("--verbose --port=8080 --dir 'my dir'");
+
+        assertTrue(args.getBoolean('v'));
+        assertEquals(8080, args.getInt('p'));
+        assertEquals("my dir", args.getString('d'));
+    }
+
+    @Test
+    public void commands_DispatchOnNameOrUniquePrefix() throws Exception {
+        ArgsCommands commands = new ArgsCommands(commands());
+
+        ParsedCommand commit = commands.parse(new String[]{"commit", "-a", "--message", "fix"});
+        ParsedCommand push = commands.parse(new String[]{"pus", "--force", "origin"});
+
+        assertEquals("commit", commit.name());
+        assertTrue(commit.args().getBoolean('a'));
+        assertEquals("fix", commit.args().getString('m'));
+        assertEquals("push", push.name());
+        assertTrue(push.args().getBoolean('f'));
+        assertEquals(2, push.args().nextArgument());
+    }
+
+    @Test
+    public void commands_ReportMissingUnknownAndAmbiguousCommands() throws Exception {
+        ArgsCommands commands = new ArgsCommands(commands());
+
+        assertCommandError(commands, MISSING_COMMAND);
+        assertCommandError(commands, UNEXPECTED_COMMAND, "merge");
+        assertCommandError(commands, AMBIGUOUS_COMMAND, "p");
+    }
+
+    private static Map<String, String> commands() {
+        Map<String, String> commands = new LinkedHashMap<>();
+        commands.put("commit", "a|all,m|message*");
+        commands.put("push", "f|force");
+        commands.put("pull", "r|rebase");
+        return commands;
+    }
+
+    private static void assertParseError(ArgsSchema schema, ErrorCode expected, String... args) {
+        try {
+            schema.parse(args);
+            fail(String.join(" ", args));
+        } catch (ArgsException e) {
+            assertEquals(expected, e.getErrorCode());
+        }
+    }
+
+    private static void assertCommandError(ArgsCommands commands, ErrorCode expected, String... args) {
+        try {
+            commands.parse(args);
+            fail(String.join(" ", args));
+        } catch (ArgsException e) {
+            assertEquals(expected, e.getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.args;
+
+import args.finalVersion.marshaler.NumberParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static args.finalVersion.marshaler.NumberParser.*;
+import static org.junit.Assert.*;
+
+public class NumberParserTest {
+    private NumberParser parser;
+
+    @Before
+    public void setUp() {
+        parser = new NumberParser();
+    }
+
+    @Test
+    public void parsesPlainAndSignedIntegers() {
+        assertInt(42, "42");
+        assertInt(-42, "-42");
+        assertInt(7, "+7");
+        assertInt(Integer.MAX_VALUE, "2147483647");
+        assertInt(Integer.MIN_VALUE, "-2147483648");
+    }
+
+    @Test
+    public void parsesRadixPrefixesAndUnderscores() {
+        assertInt(255, "0xff");
+        assertInt(8, "0o10");
+        assertInt(5, "0b101");
+        assertInt(1_000_000, "1_000_000");
+        assertInt(-65536, "-0x1_0000");
+    }
+
+    @Test
+    public void parsesSizeSuffixes() {
+        assertInt(64 * 1024, "64k");
+        assertInt(2 * 1024 * 1024, "2M");
+        assertEquals(OK, parser.parseLong("2g", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(2L << 30, parser.longValue());
+        assertEquals(OK, parser.parseLong("3t", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(3L << 40, parser.longValue());
+    }
+
+    @Test
+    public void reportsFailuresThroughStatus() {
+        assertEquals(EMPTY, parser.parseInt(""));
+        assertEquals(MALFORMED, parser.parseInt("-"));
+        assertEquals(MALFORMED, parser.parseInt("Forty two"));
+        assertEquals(MALFORMED, parser.parseInt("0x"));
+        assertEquals(MALFORMED, parser.parseInt("_1"));
+        assertEquals(MALFORMED, parser.parseInt("1__0"));
+        assertEquals(MALFORMED, parser.parseInt("1_"));
+        assertEquals(MALFORMED, parser.parseInt("4kb"));
+        assertEquals(OUT_OF_RANGE, parser.parseInt("2147483648"));
+        assertEquals(OUT_OF_RANGE, parser.parseInt("2g"));
+        assertEquals(OUT_OF_RANGE, parser.parseLong("9223372036854775808", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(OUT_OF_RANGE, parser.parseLong("99999999999999999999999", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(OK, parser.parseLong("-9223372036854775808", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(Long.MIN_VALUE, parser.longValue());
+    }
+
+    @Test
+    public void parsesDoubles() {
+        assertDouble(42.3, "42.3");
+        assertDouble(-0.5, "-.5");
+        assertDouble(1.0, "1.");
+        assertDouble(1e-7, "1e-7");
+        assertDouble(12.5e10, "1_2.5E+10");
+        assertDouble(Double.NEGATIVE_INFINITY, "-Infinity");
+        assertDouble(0.1234567890123456789, "0.1234567890123456789");
+        assertEquals(OK, parser.parseDouble("NaN"));
+        assertTrue(Double.isNaN(parser.doubleValue()));
+    }
+
+    @Test
+    public void reportsDoubleFailuresThroughStatus() {
+        assertEquals(EMPTY, parser.parseDouble(""));
+        assertEquals(MALFORMED, parser.parseDouble("Forty two"));
+        assertEquals(MALFORMED, parser.parseDouble("."));
+        assertEquals(MALFORMED, parser.parseDouble("1e"));
+        assertEquals(MALFORMED, parser.parseDouble("1.2.3"));
+        assertEquals(MALFORMED, parser.parseDouble("1dd"));
+        assertEquals(MALFORMED, parser.parseDouble("0x1q3"));
+        assertEquals(EMPTY, parser.parseDouble("  "));
+    }
+
+    @Test
+    public void acceptsEverythingTheJdkParsersAccept() {
+        String[] integers = {"0", "-0", "+0", "010", "-2147483648", "00000000000000000000042", "\u0664\u0662"};
+        for (String text : integers) {
+            assertInt(Integer.parseInt(text), text);
+        }
+        String[] doubles = {" 3.5", "3.5\t", "1e400", "-1e400", "1e-400", "2.5d", "2.5F", "1e3f", "0x1p3", "-0x1.8p1",
+                "+Infinity", "-NaN", "0.0", "-0.0", ".5", "5.", "1E+1"};
+        for (String text : doubles) {
+            assertDouble(Double.parseDouble(text), text);
+        }
+    }
+
+    @Test
+    public void acceptsMoreIntegersThanTheJdkParsers() {
+        for (String text : new String[]{"0x10", "0o10", "0b10", "1_000", "64k", "2M"}) {
+            try {
+                Integer.parseInt(text);
+                fail(text);
+            } catch (NumberFormatException expected) {
+            }
+            assertEquals(text, OK, parser.parseInt(text));
+        }
+        assertDouble(1000.5, "1_000.5");
+    }
+
+    @Test
+    public void doublesMatchJdkParsing() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            String text = randomDecimal(random);
+            assertDouble(Double.parseDouble(text), text);
+        }
+    }
+
+    private static String randomDecimal(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return Long.toString(random.nextLong() % 100_000_000L) + "." + Math.abs(random.nextInt());
+            case 1:
+                return Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+            default:
+                return random.nextInt(1_000_000) + "e" + (random.nextInt(600) - 300);
+        }
+    }
+
+    private void assertInt(int expected, String text) {
+        assertEquals(text, OK, parser.parseInt(text));
+        assertEquals(text, expected, parser.intValue());
+    }
+
+    private void assertDouble(double expected, String text) {
+        assertEquals(text, OK, parser.parseDouble(text));
+        assertEquals(text, Double.doubleToLongBits(expected), Double.doubleToLongBits(parser.doubleValue()));
+    }
+}
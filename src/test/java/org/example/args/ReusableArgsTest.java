@@ -0,0 +1,122 @@
+package org.example.args;
+
+import args.finalVersion.ArgsSchema;
+import args.finalVersion.ParsedArgs;
+import args.finalVersion.ReusableArgs;
+import args.finalVersion.exception.ArgsException;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static args.finalVersion.exception.ArgsException.ErrorCode.INVALID_INTEGER;
+import static org.junit.Assert.*;
+
+public class ReusableArgsTest {
+
+    @Test
+    public void parse_ReplacesValuesOfThePreviousParse() throws Exception {
+        ReusableArgs args = new ReusableArgs(ArgsSchema.compile("l,p#,d*,r##,n[#]"));
+
+        args.parse(new String[]{"-l", "-p", "42", "-d", "/tmp", "-n", "1,2"});
+        assertTrue(args.getBoolean('l'));
+        assertArrayEquals(new int[]{1, 2}, args.getIntArray('n'));
+
+        args.parse(new String[]{"-r", "0.5", "-n", "3"});
+        assertFalse(args.has('l'));
+        assertFalse(args.getBoolean('l'));
+        assertEquals(0, args.getInt('p'));
+        assertEquals("", args.getString('d'));
+        assertEquals(0.5, args.getDouble('r'), .001);
+        assertArrayEquals(new int[]{3}, args.getIntArray('n'));
+    }
+
+    @Test
+    public void parse_AgreesWithTheSchemasParse() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile("l|log,p|port#,d|dir*");
+        ReusableArgs reusable = new ReusableArgs(schema);
+        String[][] accepted = {
+                {"-lp", "1", "--dir=/a b", "op"},
+                {"--port=2", "--", "-l"},
+                {"", "-l"},
+                {"-d", "-p", "--log", "x"},
+        };
+        for (String[] args : accepted) {
+            ParsedArgs parsed = schema.parse(args);
+            reusable.parse(args);
+
+            assertEquals(parsed.getBoolean('l'), reusable.getBoolean('l'));
+            assertEquals(parsed.getInt('p'), reusable.getInt('p'));
+            assertEquals(parsed.getString('d'), reusable.getString('d'));
+            assertEquals(parsed.nextArgument(), reusable.nextArgument());
+        }
+        String[][] rejected = {{"--nope"}, {"--log=yes"}, {"-x"}, {"-p", "q"}, {"--port"}};
+        for (String[] args : rejected) {
+            assertEquals(parseError(() -> schema.parse(args)).errorMessage(),
+                    parseError(() -> reusable.parse(args)).errorMessage());
+        }
+    }
+
+    @Test
+    public void parse_ReadsOnlyTheGivenSlice() throws Exception {
+        ReusableArgs args = new ReusableArgs(ArgsSchema.compile("l,p#"));
+        String[] line = {"serve", "-l", "-p", "8080", "file", "-x"};
+
+        args.parse(line, 1, 5);
+
+        assertTrue(args.getBoolean('l'));
+        assertEquals(8080, args.getInt('p'));
+        assertEquals(4, args.nextArgument());
+    }
+
+    @Test
+    public void failedParse_IsClearedByTheNextOne() throws Exception {
+        ReusableArgs args = new ReusableArgs(ArgsSchema.compile("l,p#"));
+        try {
+            args.parse(new String[]{"-l", "-p", "many"});
+            fail();
+        } catch (ArgsException e) {
+            assertEquals(INVALID_INTEGER, e.getErrorCode());
+            assertEquals('p', e.getErrorArgumentId());
+        }
+
+        args.parse(new String[]{"-p", "1"});
+
+        assertFalse(args.getBoolean('l'));
+        assertEquals(1, args.getInt('p'));
+    }
+
+    @Test
+    public void reusableArgs_IsOneInstancePerThread() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile("l,p#");
+
+        ReusableArgs other = CompletableFuture.supplyAsync(schema::reusableArgs).get();
+
+        assertSame(schema.reusableArgs(), schema.reusableArgs());
+        assertNotSame(schema.reusableArgs(), other);
+    }
+
+    @Test
+    public void reusableArgs_AreKeptForRecentlyUsedSchemasOnly() throws Exception {
+        ArgsSchema schema = new ArgsSchema("l,p#");
+        ReusableArgs first = schema.reusableArgs();
+
+        for (int i = 0; i < 16; i++) {
+            new ArgsSchema("p#").reusableArgs();
+        }
+
+        assertNotSame(first, schema.reusableArgs());
+    }
+
+    private interface Parse {
+        void run() throws ArgsException;
+    }
+
+    private static ArgsException parseError(Parse parse) {
+        try {
+            parse.run();
+            throw new AssertionError("no error");
+        } catch (ArgsException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.args;
+
+import args.finalVersion.annotation.Flag;
+
+public class ServerOptions {
+    @Flag('l')
+    boolean logging;
+
+    @Flag('p')
+    int port = 8080;
+
+    @Flag('r')
+    double ratio;
+
+    @Flag('d')
+    String directory = "";
+
+    @Flag('f')
+    String[] files = new String[0];
+}
@@ -1,8 +1,12 @@
 package org.example.comparisonCompactor;
 
 import comparisonCompactor_TDD.FinalComparisonCompactor;
+import comparisonCompactor_TDD.OriginalComparisonCompactor;
 import junit.framework.TestCase;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 public class FinalComparisonCompactorTest extends TestCase {
 
     public void testMessage() {
@@ -100,5 +104,54 @@ public class FinalComparisonCompactorTest extends TestCase {
         assertEquals("expected:<[S&P50]0> but was:<[]0>", failure);
     }
 
+    public void testLongStringsCompactLikeTheOriginal() {
+        String base = longString(200_000);
+        for (int position : new int[]{0, 63, 64, 65, 191, 4_000, 16_448, 33_000, 65_535, 100_000, 199_999}) {
+            assertCompactsLikeOriginal(base, replaceAt(base, position, "#"));
+            assertCompactsLikeOriginal(base, replaceAt(base, position, ""));
+            assertCompactsLikeOriginal(base, base.substring(0, position) + "inserted" + base.substring(position));
+        }
+    }
+
+    public void testLongStringsWithOverlappingPrefixAndSuffix() {
+        String base = longString(100_000);
+        assertCompactsLikeOriginal(base, base + base.substring(0, 100));
+        assertCompactsLikeOriginal("a".repeat(100_000), "a".repeat(100_001));
+    }
+
+    public void testAppendsToABuilder() {
+        StringBuilder out = new StringBuilder("failures: ");
+        new FinalComparisonCompactor(1, "abcde", "abfde").appendCompactedComparison("msg", out);
+        new FinalComparisonCompactor(1, "a", null).appendCompactedComparison("", out.append(", "));
+        assertEquals("failures: msg expected:<...b[c]d...> but was:<...b[f]d...>, expected:<a> but was:<null>",
+                out.toString());
+    }
+
+    public void testAppendsToAnAppendable() throws IOException {
+        String[][] comparisons = {{"ab", "ab"}, {"abc", "abbc"}, {"S&P500", "0"}, {null, "a"}};
+        for (String[] comparison : comparisons) {
+            FinalComparisonCompactor compactor = new FinalComparisonCompactor(2, comparison[0], comparison[1]);
+            assertEquals(compactor.formatCompactedComparison("msg"),
+                    compactor.appendCompactedComparison("msg", new StringWriter()).toString());
+        }
+    }
+
+    private static void assertCompactsLikeOriginal(String expected, String actual) {
+        assertEquals(new OriginalComparisonCompactor(20, expected, actual).compact("msg"),
+                new FinalComparisonCompactor(20, expected, actual).formatCompactedComparison("msg"));
+    }
+
+    private static String longString(int length) {
+        StringBuilder s = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            s.append((char) ('a' + i * 7 % 26));
+        }
+        return s.toString();
+    }
+
+    private static String replaceAt(String s, int position, String replacement) {
+        return s.substring(0, position) + replacement + s.substring(position + 1);
+    }
+
 }
 
@@ -0,0 +1,114 @@
+package org.example.comparisonCompactor;
+
+import comparisonCompactor_TDD.FinalComparisonCompactor;
+import comparisonCompactor_TDD.HunkComparisonCompactor;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class HunkComparisonCompactorTest extends TestCase {
+
+    public void testEditsFarApartGetTheirOwnHunks() {
+        String failure = new HunkComparisonCompactor(2, "abcXdefghijklmnYopqrs", "abcZdefghijklmnWopqrs")
+                .formatCompactedComparison(null);
+        assertEquals("expected:<...bc[X]de...mn[Y]op...> but was:<...bc[Z]de...mn[W]op...>", failure);
+    }
+
+    public void testShortUnchangedRunsBetweenHunksAreKept() {
+        String failure = new HunkComparisonCompactor(2, "aXbcYd", "aZbcd").formatCompactedComparison(null);
+        assertEquals("expected:<a[X]bc[Y]d> but was:<a[Z]bc[]d>", failure);
+    }
+
+    public void testSingleEditsCompactLikeTheFinalVersion() {
+        String[][] comparisons = {
+                {"b", "c"}, {"ba", "bc"}, {"ab", "cb"}, {"ab", "ab"}, {"abc", "adc"}, {"abcde", "abfde"},
+                {"ab", "abc"}, {"bc", "abc"}, {"abc", "abbc"}, {"abcdde", "abcde"}, {"S&P500", "0"},
+                {"a", null}, {null, "a"}};
+        for (String[] comparison : comparisons) {
+            for (int contextLength = 0; contextLength < 4; contextLength++) {
+                assertEquals(new FinalComparisonCompactor(contextLength, comparison[0], comparison[1])
+                                .formatCompactedComparison("msg"),
+                        new HunkComparisonCompactor(contextLength, comparison[0], comparison[1])
+                                .formatCompactedComparison("msg"));
+            }
+        }
+    }
+
+    public void testFallsBackToASingleDeltaOverTheEditBudget() {
+        String expected = "abcXdefghijklmnYopqrs";
+        String actual = "abcZdefghijklmnWopqrs";
+        assertEquals(new FinalComparisonCompactor(2, expected, actual).formatCompactedComparison(null),
+                new HunkComparisonCompactor(2, expected, actual, 3).formatCompactedComparison(null));
+        assertEquals("expected:<...bc[X]de...mn[Y]op...> but was:<...bc[Z]de...mn[W]op...>",
+                new HunkComparisonCompactor(2, expected, actual, 4).formatCompactedComparison(null));
+    }
+
+    public void testHunksAreAShortestEditScript() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String expected = randomString(random, random.nextInt(40));
+            String actual = mutate(random, expected);
+            String failure = new HunkComparisonCompactor(100, expected, actual).formatCompactedComparison(null);
+            if (expected.equals(actual)) {
+                continue;
+            }
+            String compactExpected = between(failure, "expected:<", "> but was:<");
+            String compactActual = between(failure, "> but was:<", ">");
+            assertEquals(expected, compactExpected.replaceAll("[\\[\\]]", ""));
+            assertEquals(actual, compactActual.replaceAll("[\\[\\]]", ""));
+            assertEquals(editDistance(expected, actual),
+                    deltaLength(compactExpected) + deltaLength(compactActual));
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder s = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            s.append((char) ('a' + random.nextInt(4)));
+        }
+        return s.toString();
+    }
+
+    private static String mutate(Random random, String s) {
+        StringBuilder mutated = new StringBuilder(s);
+        for (int edits = random.nextInt(6); edits > 0; edits--) {
+            int position = random.nextInt(mutated.length() + 1);
+            if (random.nextBoolean() && position < mutated.length()) {
+                mutated.deleteCharAt(position);
+            } else {
+                mutated.insert(position, (char) ('a' + random.nextInt(4)));
+            }
+        }
+        return mutated.toString();
+    }
+
+    private static String between(String s, String start, String end) {
+        int from = s.indexOf(start) + start.length();
+        return s.substring(from, s.indexOf(end, from));
+    }
+
+    private static int deltaLength(String compacted) {
+        int length = 0;
+        boolean inDelta = false;
+        for (char c : compacted.toCharArray()) {
+            if (c == '[' || c == ']') {
+                inDelta = c == '[';
+            } else if (inDelta) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    private static int editDistance(String a, String b) {
+        int[][] lcs = new int[a.length() + 1][b.length() + 1];
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                lcs[i][j] = a.charAt(i - 1) == b.charAt(j - 1)
+                        ? lcs[i - 1][j - 1] + 1
+                        : Math.max(lcs[i - 1][j], lcs[i][j - 1]);
+            }
+        }
+        return a.length() + b.length() - 2 * lcs[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.comparisonCompactor;
+
+import comparisonCompactor_TDD.LineComparisonCompactor;
+import junit.framework.TestCase;
+
+public class LineComparisonCompactorTest extends TestCase {
+
+    public void testChangedLineIsCompactedCharByChar() {
+        String failure = new LineComparisonCompactor(1, 2, lines(1, 9), lines(1, 9).replace("line 5", "line five"))
+                .formatCompactedComparison(null);
+        assertEquals("expected:<<<3 lines elided>>\nline 4\n...e [5]\nline 6\n<<3 lines elided>>>"
+                        + " but was:<<<3 lines elided>>\nline 4\n...e [five]\nline 6\n<<3 lines elided>>>",
+                failure);
+    }
+
+    public void testAddedAndRemovedLinesAreBracketedWhole() {
+        String expected = "a\nb\nc\nd";
+        String actual = "a\nc\nnew\nd";
+        String failure = new LineComparisonCompactor(0, 5, expected, actual).formatCompactedComparison(null);
+        assertEquals("expected:<<<1 lines elided>>\n[b]\n<<1 lines elided>>\n<<1 lines elided>>>"
+                + " but was:<<<1 lines elided>>\n<<1 lines elided>>\n[new]\n<<1 lines elided>>>", failure);
+    }
+
+    public void testContextLinesNextToTheEnds() {
+        String failure = new LineComparisonCompactor(2, 5, "a\nb\nc", "a\nb\nC").formatCompactedComparison(null);
+        assertEquals("expected:<a\nb\n[c]> but was:<a\nb\n[C]>", failure);
+    }
+
+    public void testTrailingNewline() {
+        String failure = new LineComparisonCompactor(1, 5, "a\nb", "a\nb\n").formatCompactedComparison(null);
+        assertEquals("expected:<<<1 lines elided>>\nb> but was:<<<1 lines elided>>\nb\n[]>", failure);
+    }
+
+    public void testSameAndNull() {
+        assertEquals("expected:<a\nb> but was:<a\nb>",
+                new LineComparisonCompactor(1, 1, "a\nb", "a\nb").formatCompactedComparison(null));
+        assertEquals("expected:<a> but was:<null>",
+                new LineComparisonCompactor(1, 1, "a", null).formatCompactedComparison(null));
+    }
+
+    public void testOverTheEditBudgetTheDifferingLinesFormOneHunk() {
+        String expected = "same\nx1\nkept\nx2\nsame";
+        String actual = "same\nkept\nsame";
+        assertEquals("expected:<same\n[x1]\n[kept]\n[x2]\nsame> but was:<same\n[kept]\nsame>",
+                new LineComparisonCompactor(1, 0, expected, actual, 1).formatCompactedComparison(null));
+        assertEquals("expected:<same\n[x1]\nkept\n[x2]\nsame> but was:<same\nkept\nsame>",
+                new LineComparisonCompactor(1, 0, expected, actual, 2).formatCompactedComparison(null));
+    }
+
+    public void testMillionLinesWithFewChanges() {
+        String expected = lines(1, 1_000_000);
+        String actual = expected.replace("\nline 250000\n", "\nline 250000 changed\n")
+                .replace("\nline 750000\n", "\nline 750000\ninserted\n");
+        String failure = new LineComparisonCompactor(1, 4, expected, actual).formatCompactedComparison(null);
+        assertEquals("expected:<<<249998 lines elided>>\nline 249999\n...0000[]\nline 250001\n"
+                        + "<<499998 lines elided>>\nline 750000\nline 750001\n<<249999 lines elided>>>"
+                        + " but was:<<<249998 lines elided>>\nline 249999\n...0000[ changed]\nline 250001\n"
+                        + "<<499998 lines elided>>\nline 750000\n[inserted]\nline 750001\n<<249999 lines elided>>>",
+                failure);
+    }
+
+    public void testFallbackHunkOverTheEditBudgetIsCutDown() {
+        String expected = lines(1, 10_000);
+        String actual = expected.replaceAll("(?m)^(line \\d*00)$", "$1 changed");
+        String failure = new LineComparisonCompactor(1, 4, expected, actual, 10).formatCompactedComparison(null);
+
+        assertTrue(failure, failure.contains("\n<<9861 lines elided>>\n"));
+        assertTrue(failure.length() < 10 * LineComparisonCompactor.MAX_HUNK_LINES * 2 * 20);
+    }
+
+    private static String lines(int first, int last) {
+        StringBuilder lines = new StringBuilder();
+        for (int line = first; line <= last; line++) {
+            lines.append(line == first ? "" : "\n").append("line ").append(line);
+        }
+        return lines.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.comparisonCompactor;
+
+import comparisonCompactor_TDD.FinalComparisonCompactor;
+import comparisonCompactor_TDD.StreamingComparisonCompactor;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class StreamingComparisonCompactorTest extends TestCase {
+    private Path expectedFile;
+    private Path actualFile;
+
+    @Override
+    protected void setUp() throws IOException {
+        expectedFile = Files.createTempFile("expected", ".txt");
+        actualFile = Files.createTempFile("actual", ".txt");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        Files.delete(expectedFile);
+        Files.delete(actualFile);
+    }
+
+    public void testStartAndEndContextWithEllipses() throws IOException {
+        assertEquals("expected:<...b[c]d...> but was:<...b[f]d...>", compactFiles(1, "abcde", "abfde"));
+    }
+
+    public void testSame() throws IOException {
+        assertEquals("expected:<ab> but was:<ab>", compactFiles(1, "ab", "ab"));
+    }
+
+    public void testCompactsLikeTheStringVersion() throws IOException {
+        String[][] comparisons = {
+                {"b", "c"}, {"ba", "bc"}, {"ab", "cb"}, {"abc", "adc"}, {"ab", "abc"}, {"bc", "abc"},
+                {"abc", "abbc"}, {"abcdde", "abcde"}, {"S&P500", "0"}, {"", "a"}, {"a", ""}, {"", ""}};
+        for (String[] comparison : comparisons) {
+            for (int contextLength = 0; contextLength < 4; contextLength++) {
+                assertCompactsLikeStringVersion(contextLength, comparison[0], comparison[1]);
+            }
+        }
+    }
+
+    public void testNonAsciiDifferencesAreWholeCharacters() throws IOException {
+        assertEquals("expected:<...ü[ß]€...> but was:<...ü[ö]€...>", compactFiles(1, "äüß€x", "äüö€x"));
+        for (int contextLength = 0; contextLength < 4; contextLength++) {
+            assertCompactsLikeStringVersion(contextLength, "x€€€y", "x€£€y");
+            assertCompactsLikeStringVersion(contextLength, "日本語のテキスト", "日本語テキスト");
+        }
+    }
+
+    public void testSupplementaryCharactersAreNotSplit() throws IOException {
+        assertEquals("expected:<a[😀]b> but was:<a[😁]b>", compactFiles(1, "a😀b", "a😁b"));
+    }
+
+    public void testLongContentsCompactLikeTheStringVersion() throws IOException {
+        String base = longString(50_000);
+        for (int position : new int[]{0, 4_095, 4_096, 4_097, 33_000, 49_999}) {
+            String replaced = base.substring(0, position) + "#" + base.substring(position + 1);
+            assertCompactsLikeStringVersion(20, base, replaced);
+            assertCompactsLikeStringVersion(20, base, base.substring(0, position) + "äö" + base.substring(position));
+        }
+        assertCompactsLikeStringVersion(20, base, base + base.substring(0, 5_000));
+    }
+
+    public void testOversizedDeltasAreElided() throws IOException {
+        String delta = longString(200_000);
+        String failure = compactFiles(2, "ab" + delta + "yz", "abXyz");
+        int elided = 200_000 - StreamingComparisonCompactor.MAX_SHOWN_BYTES;
+        assertEquals("expected:<ab[" + delta.substring(0, 32_768) + "<<" + elided + " bytes elided>>"
+                + delta.substring(200_000 - 32_768) + "]yz> but was:<ab[X]yz>", failure);
+    }
+
+    public void testFilesOverTwoGigabytesDifferingAtBothEnds() throws IOException {
+        long size = 3L * 1024 * 1024 * 1024;
+        writeSparse(expectedFile, size, (byte) 'a');
+        writeSparse(actualFile, size, (byte) 'b');
+        String failure = new StreamingComparisonCompactor(2, expectedFile, actualFile).formatCompactedComparison(null);
+        assertTrue(failure.startsWith("expected:<[a\0\0"));
+        assertTrue(failure.contains("<<" + (size - StreamingComparisonCompactor.MAX_SHOWN_BYTES) + " bytes elided>>"));
+        assertTrue(failure.length() < 3 * StreamingComparisonCompactor.MAX_SHOWN_BYTES);
+    }
+
+    public void testStreams() throws IOException {
+        String failure = new StreamingComparisonCompactor(2,
+                new ByteArrayInputStream("abcdde".getBytes(StandardCharsets.UTF_8)),
+                new ByteArrayInputStream("abcde".getBytes(StandardCharsets.UTF_8))).formatCompactedComparison("msg");
+        assertEquals("msg expected:<...cd[d]e> but was:<...cd[]e>", failure);
+    }
+
+    private void assertCompactsLikeStringVersion(int contextLength, String expected, String actual)
+            throws IOException {
+        assertEquals(new FinalComparisonCompactor(contextLength, expected, actual).formatCompactedComparison("msg"),
+                compactFiles(contextLength, expected, actual, "msg"));
+    }
+
+    private String compactFiles(int contextLength, String expected, String actual) throws IOException {
+        return compactFiles(contextLength, expected, actual, null);
+    }
+
+    private String compactFiles(int contextLength, String expected, String actual, String message)
+            throws IOException {
+        Files.writeString(expectedFile, expected);
+        Files.writeString(actualFile, actual);
+        return new StreamingComparisonCompactor(contextLength, expectedFile, actualFile)
+                .formatCompactedComparison(message);
+    }
+
+    private static void writeSparse(Path file, long size, byte firstAndLast) throws IOException {
+        try (RandomAccessFile sparse = new RandomAccessFile(file.toFile(), "rw")) {
+            sparse.setLength(size);
+            sparse.write(firstAndLast);
+            sparse.seek(size - 1);
+            sparse.write(firstAndLast);
+        }
+    }
+
+    private static String longString(int length) {
+        StringBuilder s = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            s.append((char) ('a' + i * 7 % 26));
+        }
+        return s.toString();
+    }
+}